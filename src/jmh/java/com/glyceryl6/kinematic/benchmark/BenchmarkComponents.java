@@ -0,0 +1,87 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.MultiplicativeSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SetSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import com.glyceryl6.kinematic.core.architecture.AbstractComponent;
+import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.dependency.ComponentDependency;
+import com.glyceryl6.kinematic.core.event.ComponentEvent;
+
+/**
+ * 基准测试用的组件、修饰符和事件
+ */
+public final class BenchmarkComponents {
+
+    private BenchmarkComponents() {}
+
+    /**
+     * 按序号生成加法、乘法、设置交替的修饰符，名称互不相同
+     */
+    public static SpeedModifier modifier(int index) {
+        String name = "benchmark_" + index;
+        int priority = index % 5;
+        return switch (index % 3) {
+            case 0 -> new AdditiveSpeedModifier(name, 0.01f, priority);
+            case 1 -> new MultiplicativeSpeedModifier(name, 1.05f, priority);
+            default -> new SetSpeedModifier(name, 0.23f, priority);
+        };
+    }
+
+    /**
+     * 空组件
+     */
+    public static class NoopComponent extends AbstractComponent {
+
+        private final ComponentType type;
+
+        public NoopComponent(ComponentType type) {
+            this.type = type;
+        }
+
+        @Override
+        public String getComponentId() {
+            return "noop_" + this.type.getId();
+        }
+
+        @Override
+        public ComponentType getComponentType() {
+            return this.type;
+        }
+
+        @Override
+        public void update(float deltaTime) {}
+
+    }
+
+    /**
+     * 带依赖注入字段的组件
+     */
+    public static class DependentComponent extends NoopComponent {
+
+        @ComponentDependency(ComponentType.SPEED)
+        private SpeedComponent speed;
+
+        @ComponentDependency(required = false)
+        private NoopComponent noop;
+
+        public DependentComponent() {
+            super(ComponentType.CONFIGURATION);
+        }
+
+    }
+
+    /**
+     * 空事件
+     */
+    public static class BenchmarkEvent extends ComponentEvent {
+
+        public BenchmarkEvent(String eventType) {
+            super(eventType, null);
+        }
+
+    }
+
+}
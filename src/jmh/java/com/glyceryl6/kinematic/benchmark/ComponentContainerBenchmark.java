@@ -0,0 +1,48 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MobComponentContainer 的更新和组件增删开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ComponentContainerBenchmark {
+
+    private MobComponentContainer container;
+
+    @Setup
+    public void setup() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        this.container.addComponent(new SpeedComponent());
+        this.container.addComponent(new BenchmarkComponents.NoopComponent(ComponentType.STATE_MANAGER));
+        this.container.addComponent(new BenchmarkComponents.NoopComponent(ComponentType.ENVIRONMENT_SENSOR));
+        this.container.updateComponents(0.05f);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.container.shutdown();
+    }
+
+    @Benchmark
+    public int updateComponents() {
+        this.container.updateComponents(0.05f);
+        return this.container.getComponentCount();
+    }
+
+    @Benchmark
+    public int addRemoveComponent() {
+        this.container.addComponent(new BenchmarkComponents.NoopComponent(ComponentType.CUSTOM));
+        this.container.removeComponent(ComponentType.CUSTOM);
+        return this.container.getComponentCount();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import net.minecraft.world.entity.Mob;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大量容器的堆占用和创建耗时
+ * <p>
+ * 每次调用创建一批容器，用 JOL 遍历容器可达的对象图并减去生物自身（含属性表和维度）的部分，
+ * 结果以辅助计数器 {@code bytesPerContainer} 和 {@code objectsPerContainer} 报告。
+ * 遍历对象图的耗时也计入得分，得分只用于粗略比较。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContainerFootprintBenchmark {
+
+    @Param({"10000"})
+    public int containerCount;
+
+    @Param({"false", "true"})
+    public boolean withSpeed;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public long bytesPerContainer;
+        public long objectsPerContainer;
+
+    }
+
+    @Benchmark
+    public List<MobComponentContainer> createContainers(Footprint footprint) {
+        List<Mob> mobs = new ArrayList<>(this.containerCount);
+        List<MobComponentContainer> containers = new ArrayList<>(this.containerCount);
+        for (int i = 0; i < this.containerCount; i++) {
+            Mob mob = TestMobs.createZombie((i * 37) % 1024, 64, (i * 101) % 1024);
+            MobComponentContainer container = new MobComponentContainer(mob);
+            if (this.withSpeed) {
+                container.addComponent(new SpeedComponent());
+            }
+            mobs.add(mob);
+            containers.add(container);
+        }
+
+        GraphLayout layout = GraphLayout.parseInstance(containers.toArray())
+                .subtract(GraphLayout.parseInstance(mobs.toArray()));
+        footprint.bytesPerContainer = layout.totalSize() / this.containerCount;
+        footprint.objectsPerContainer = layout.totalCount() / this.containerCount;
+        containers.forEach(MobComponentContainer::shutdown);
+        return containers;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.core.architecture.ComponentContext;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import com.glyceryl6.kinematic.core.dependency.DependencyInjector;
+import com.glyceryl6.kinematic.core.event.SimpleEventBus;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DependencyInjector.injectDependencies 的反射扫描和注入开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DependencyInjectorBenchmark {
+
+    private MobComponentContainer container;
+    private ComponentContext context;
+    private BenchmarkComponents.DependentComponent component;
+
+    @Setup
+    public void setup() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        this.container.addComponent(new SpeedComponent());
+        this.context = new ComponentContext(this.container, TestMobs.createZombie(), new SimpleEventBus());
+        this.component = new BenchmarkComponents.DependentComponent();
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.container.shutdown();
+    }
+
+    @Benchmark
+    public Object injectDependencies() {
+        DependencyInjector.injectDependencies(this.component, this.context);
+        return this.component;
+    }
+
+}
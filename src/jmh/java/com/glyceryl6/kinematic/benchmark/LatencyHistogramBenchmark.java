@@ -0,0 +1,60 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.core.metrics.HistogramSnapshot;
+import com.glyceryl6.kinematic.core.metrics.LatencyHistogram;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟直方图单次记录的耗时，包括单线程和多线程共享同一直方图的情况，以及生成快照的耗时
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LatencyHistogramBenchmark {
+
+    private static final int SAMPLE_COUNT = 1024;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private long[] samples;
+
+    @Setup
+    public void setup() {
+        // 模拟组件更新耗时：大部分在数百纳秒到数微秒，少量到毫秒级
+        Random random = new Random(42);
+        this.samples = new long[SAMPLE_COUNT];
+        for (int i = 0; i < SAMPLE_COUNT; i++) {
+            this.samples[i] = random.nextInt(100) == 0 ? 1_000_000L + random.nextInt(5_000_000) : 200L + random.nextInt(5_000);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        int index;
+
+        long next(long[] samples) {
+            return samples[this.index++ & (SAMPLE_COUNT - 1)];
+        }
+
+    }
+
+    @Benchmark
+    public void record(Cursor cursor) {
+        this.histogram.record(cursor.next(this.samples));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended(Cursor cursor) {
+        this.histogram.record(cursor.next(this.samples));
+    }
+
+    @Benchmark
+    public HistogramSnapshot snapshot() {
+        return this.histogram.snapshot();
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.component.speed.SpeedModifierStore;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 修饰符存储的增删开销：有序数组存储与写时复制列表 + 并发哈希表 + 全量排序对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ModifierStorageBenchmark {
+
+    private static final Comparator<SpeedModifier> PRIORITY_ORDER =
+            Comparator.comparingInt(SpeedModifier::getPriority).reversed();
+
+    @Param({"1", "4", "16", "64"})
+    public int modifierCount;
+
+    private final SpeedModifierStore store = new SpeedModifierStore();
+    private final List<SpeedModifier> copyOnWriteList = new CopyOnWriteArrayList<>();
+    private final Map<UUID, SpeedModifier> copyOnWriteIndex = new ConcurrentHashMap<>();
+    private SpeedModifier probe;
+    // 原实现在修饰符中保存 UUID，这里预先创建，不把分配计入对照组
+    private UUID probeId;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < this.modifierCount; i++) {
+            SpeedModifier modifier = BenchmarkComponents.modifier(i);
+            this.store.add(modifier);
+            this.copyOnWriteList.add(modifier);
+            this.copyOnWriteIndex.put(modifier.getModifierId(), modifier);
+        }
+        this.copyOnWriteList.sort(PRIORITY_ORDER);
+        this.probe = BenchmarkComponents.modifier(this.modifierCount);
+        this.probeId = this.probe.getModifierId();
+    }
+
+    @Benchmark
+    public int storeAddRemove() {
+        this.store.add(this.probe);
+        this.store.remove(this.probe.getId());
+        return this.store.size();
+    }
+
+    @Benchmark
+    public int storeReplaceByName() {
+        this.store.add(this.probe);
+        return this.store.removeByName(this.probe.getName(), modifier -> {});
+    }
+
+    @Benchmark
+    public int copyOnWriteAddRemove() {
+        this.copyOnWriteList.add(this.probe);
+        this.copyOnWriteIndex.put(this.probeId, this.probe);
+        this.copyOnWriteList.sort(PRIORITY_ORDER);
+        SpeedModifier removed = this.copyOnWriteIndex.remove(this.probeId);
+        this.copyOnWriteList.remove(removed);
+        return this.copyOnWriteList.size();
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.core.container.ComponentTickManager;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import net.minecraft.server.level.ServerLevel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大量修饰符较多的生物在串行和两阶段并行模式下的整刻更新耗时
+ * <p>
+ * 初始化时先按相同的修改序列分别以串行和并行模式运行若干刻，逐位比较所有生物的速度，
+ * 结果不一致时直接失败。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ParallelUpdateBenchmark {
+
+    private static final int VERIFY_TICKS = 20;
+
+    @Param({"1000", "10000"})
+    public int mobCount;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private final ComponentTickManager manager = ComponentTickManager.getInstance();
+    private List<MobComponentContainer> containers;
+    private ServerLevel level;
+    private int tick;
+
+    @Setup
+    public void setup() {
+        this.manager.setTickBudgetMicros(Long.MAX_VALUE / 1000L);
+        // 只比较更新本身的开销，所有容器每刻都更新
+        this.manager.getLevelOfDetail().setEnabled(false);
+        float[] serial = this.simulate(false);
+        float[] parallel = this.simulate(true);
+        for (int i = 0; i < serial.length; i++) {
+            if (Float.floatToRawIntBits(serial[i]) != Float.floatToRawIntBits(parallel[i])) {
+                throw new IllegalStateException("Parallel update diverged at mob " + i + ": " + serial[i] + " != " + parallel[i]);
+            }
+        }
+
+        this.containers = this.spawn();
+        this.manager.setParallelUpdates(this.parallel);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.despawn(this.containers);
+        this.manager.setParallelUpdates(false);
+        this.manager.getLevelOfDetail().setEnabled(true);
+    }
+
+    @Benchmark
+    public void tickLevel() {
+        // 每刻修改一部分生物的基础速度，强制重新计算
+        this.mutate(this.containers, this.tick++);
+        this.manager.beginServerTick();
+        this.manager.tickLevel(this.level);
+    }
+
+    private float[] simulate(boolean parallel) {
+        List<MobComponentContainer> containers = this.spawn();
+        this.manager.setParallelUpdates(parallel);
+        for (int tick = 0; tick < VERIFY_TICKS; tick++) {
+            this.mutate(containers, tick);
+            this.manager.beginServerTick();
+            this.manager.tickLevel(this.level);
+        }
+
+        float[] speeds = new float[containers.size()];
+        for (int i = 0; i < speeds.length; i++) {
+            SpeedComponent speed = containers.get(i).getComponent(SpeedComponent.class);
+            speeds[i] = speed.getCurrentSpeed();
+        }
+
+        this.despawn(containers);
+        this.manager.setParallelUpdates(false);
+        return speeds;
+    }
+
+    private List<MobComponentContainer> spawn() {
+        List<MobComponentContainer> containers = new ArrayList<>(this.mobCount);
+        for (int i = 0; i < this.mobCount; i++) {
+            // 分散在约 64x64 个区块内
+            MobComponentContainer container = new MobComponentContainer(
+                    TestMobs.createZombie((i * 37) % 1024, 64, (i * 101) % 1024));
+            SpeedComponent speed = new SpeedComponent();
+            container.addComponent(speed);
+            for (int j = 0, count = 4 + i % 28; j < count; j++) {
+                speed.addModifier(BenchmarkComponents.modifier(i + j));
+            }
+            containers.add(container);
+        }
+
+        this.level = (ServerLevel) containers.get(0).getMobEntity().level();
+        return containers;
+    }
+
+    private void mutate(List<MobComponentContainer> containers, int tick) {
+        for (int i = tick % 7; i < containers.size(); i += 7) {
+            SpeedComponent speed = containers.get(i).getComponent(SpeedComponent.class);
+            speed.setBaseSpeed(0.2f + ((i + tick) % 10) * 0.01f);
+        }
+    }
+
+    private void despawn(List<MobComponentContainer> containers) {
+        containers.forEach(MobComponentContainer::shutdown);
+        containers.clear();
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.core.event.ComponentEvent;
+import com.glyceryl6.kinematic.core.event.SimpleEventBus;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SimpleEventBus.post 的分发开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SimpleEventBusBenchmark {
+
+    @Param({"1", "5", "10", "50"})
+    public int subscriberCount;
+
+    private final SimpleEventBus eventBus = new SimpleEventBus();
+    private final ComponentEvent observedEvent = new BenchmarkComponents.BenchmarkEvent("observed");
+    private final ComponentEvent unobservedEvent = new BenchmarkComponents.BenchmarkEvent("unobserved");
+    private final SimpleEventBus typedEventBus = new SimpleEventBus();
+    private final SimpleEventBus coalescingEventBus = new SimpleEventBus();
+
+    @Setup
+    public void setup(Blackhole blackhole) {
+        for (int i = 0; i < this.subscriberCount; i++) {
+            this.eventBus.subscribe("observed", blackhole::consume);
+            this.typedEventBus.subscribe(ComponentEvent.class, blackhole::consume);
+            this.coalescingEventBus.subscribe("observed", blackhole::consume);
+        }
+        this.coalescingEventBus.setCoalescing("observed", ComponentEvent::getSource);
+    }
+
+    @Benchmark
+    public void postObserved() {
+        this.eventBus.post(this.observedEvent);
+    }
+
+    @Benchmark
+    public void postUnobserved() {
+        this.eventBus.post(this.unobservedEvent);
+    }
+
+    /**
+     * 一刻内重复投递 10 次同一可合并事件，再合并投递
+     */
+    @Benchmark
+    public void postCoalescedTick() {
+        for (int i = 0; i < 10; i++) {
+            this.coalescingEventBus.post(this.observedEvent);
+        }
+        this.coalescingEventBus.flushCoalesced();
+    }
+
+    /**
+     * 没有监听器时按需创建事件，应当不产生分配（配合 -prof gc 查看）
+     */
+    @Benchmark
+    public void postLazyUnobserved() {
+        this.eventBus.post("unobserved", BenchmarkComponents.BenchmarkEvent.class,
+                () -> new BenchmarkComponents.BenchmarkEvent("unobserved"));
+    }
+
+    @Benchmark
+    public void postTypedSupertype() {
+        this.typedEventBus.post(this.observedEvent);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpeedComponent.update 的稳态（缓存命中）和重新计算路径
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpeedComponentBenchmark {
+
+    @Param({"0", "1", "4", "16", "64"})
+    public int modifierCount;
+
+    private MobComponentContainer container;
+    private SpeedComponent speed;
+    private boolean toggle;
+
+    @Setup
+    public void setup() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        this.speed = new SpeedComponent();
+        this.container.addComponent(this.speed);
+        for (int i = 0; i < this.modifierCount; i++) {
+            this.speed.addModifier(BenchmarkComponents.modifier(i));
+        }
+        this.speed.update(0.05f);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.container.shutdown();
+    }
+
+    @Benchmark
+    public float updateSteadyState() {
+        this.speed.update(0.05f);
+        return this.speed.getCurrentSpeed();
+    }
+
+    @Benchmark
+    public float updateRecalculate() {
+        // 修改基础速度使速度变脏，强制重新计算
+        this.toggle = !this.toggle;
+        this.speed.setBaseSpeed(this.toggle ? 0.25f : 0.3f);
+        this.speed.update(0.05f);
+        return this.speed.getCurrentSpeed();
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.component.speed.SpeedModifierCache;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 速度缓存的命中和未命中路径，与按修饰符列表构建键的旧实现对比
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SpeedModifierCacheBenchmark {
+
+    @Param({"1", "4", "16", "64"})
+    public int modifierCount;
+
+    private final SpeedModifierCache cache = new SpeedModifierCache();
+    private final ListKeyedCache legacyCache = new ListKeyedCache();
+    private List<SpeedModifier> modifiers;
+    private List<SpeedModifier> otherModifiers;
+    private long stamp;
+
+    @Setup
+    public void setup() {
+        this.modifiers = new ArrayList<>();
+        this.otherModifiers = new ArrayList<>();
+        for (int i = 0; i < this.modifierCount; i++) {
+            this.modifiers.add(BenchmarkComponents.modifier(i));
+            this.otherModifiers.add(BenchmarkComponents.modifier(i));
+            this.stamp += this.modifiers.get(i).getRevision();
+        }
+        this.cache.cacheCalculation(1L, this.stamp, 0.3f);
+        this.legacyCache.cacheCalculation(this.modifiers, 0.3f);
+    }
+
+    @Benchmark
+    public float versionedHit() {
+        return this.cache.isCalculationCached(1L, this.stamp) ? this.cache.getCachedSpeed() : -1f;
+    }
+
+    @Benchmark
+    public float versionedMiss() {
+        return this.cache.isCalculationCached(2L, this.stamp) ? this.cache.getCachedSpeed() : -1f;
+    }
+
+    @Benchmark
+    public float listKeyedHit() {
+        return this.legacyCache.isCalculationCached(this.modifiers) ? this.legacyCache.getCachedSpeed(this.modifiers) : -1f;
+    }
+
+    @Benchmark
+    public float listKeyedMiss() {
+        return this.legacyCache.isCalculationCached(this.otherModifiers) ? this.legacyCache.getCachedSpeed(this.otherModifiers) : -1f;
+    }
+
+    /**
+     * 旧实现：每次查询复制修饰符列表并哈希全部 UUID
+     */
+    private static final class ListKeyedCache {
+
+        private final Map<CacheKey, Float> calculationCache = new ConcurrentHashMap<>();
+
+        void cacheCalculation(List<SpeedModifier> modifiers, float result) {
+            this.calculationCache.put(new CacheKey(modifiers), result);
+        }
+
+        boolean isCalculationCached(List<SpeedModifier> modifiers) {
+            return this.calculationCache.containsKey(new CacheKey(modifiers));
+        }
+
+        float getCachedSpeed(List<SpeedModifier> modifiers) {
+            return this.calculationCache.getOrDefault(new CacheKey(modifiers), 0.0f);
+        }
+
+    }
+
+    private static final class CacheKey {
+
+        private final List<SpeedModifier> modifiers;
+        private final int hashCode;
+
+        CacheKey(List<SpeedModifier> modifiers) {
+            this.modifiers = List.copyOf(modifiers);
+            int result = 1;
+            for (SpeedModifier modifier : this.modifiers) {
+                if (modifier.isActive()) {
+                    result = 31 * result + Long.hashCode(modifier.getId());
+                    result = 31 * result + Float.floatToIntBits(modifier.getValue());
+                }
+            }
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (!(obj instanceof CacheKey other)) return false;
+            if (this.modifiers.size() != other.modifiers.size()) return false;
+            for (int i = 0; i < this.modifiers.size(); i++) {
+                SpeedModifier mod1 = this.modifiers.get(i);
+                SpeedModifier mod2 = other.modifiers.get(i);
+                if (mod1.getId() != mod2.getId() ||
+                        Float.compare(mod1.getValue(), mod2.getValue()) != 0 ||
+                        mod1.isActive() != mod2.isActive()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.glyceryl6.kinematic.benchmark;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.component.speed.SpeedStorage;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import net.minecraft.world.level.Level;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 大量生物的速度全部变脏后，逐个组件重新计算与共享结构数组存储统一重新计算的耗时
+ * <p>
+ * 初始化时先按相同的修改序列分别以两种存储方式运行若干刻，逐位比较所有生物的速度，
+ * 结果不一致时直接失败。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SpeedStorageBenchmark {
+
+    private static final int VERIFY_TICKS = 20;
+
+    @Param({"10000"})
+    public int mobCount;
+
+    @Param({"false", "true"})
+    public boolean soa;
+
+    private List<MobComponentContainer> containers;
+    private SpeedComponent[] speeds;
+    private SpeedStorage storage;
+    private int tick;
+
+    @Setup
+    public void setup() {
+        float[] object = this.simulate(false);
+        float[] soa = this.simulate(true);
+        for (int i = 0; i < object.length; i++) {
+            if (Float.floatToRawIntBits(object[i]) != Float.floatToRawIntBits(soa[i])) {
+                throw new IllegalStateException("Shared storage diverged at mob " + i + ": " + object[i] + " != " + soa[i]);
+            }
+        }
+
+        SpeedStorage.setEnabled(this.soa);
+        this.containers = this.spawn();
+        this.speeds = this.containers.stream().map(container -> container.getComponent(SpeedComponent.class)).toArray(SpeedComponent[]::new);
+        this.storage = SpeedStorage.get(Level.OVERWORLD);
+        SpeedStorage.setEnabled(false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.despawn(this.containers);
+    }
+
+    /**
+     * 只计算速度：逐个组件更新，或由共享存储统一计算
+     */
+    @Benchmark
+    public int recalculate() {
+        this.mutate(this.speeds, this.tick++);
+        if (this.soa) {
+            return this.storage.recalculateDirty();
+        }
+
+        for (SpeedComponent speed : this.speeds) {
+            speed.update(0.05f);
+        }
+        return this.speeds.length;
+    }
+
+    private float[] simulate(boolean soa) {
+        SpeedStorage.setEnabled(soa);
+        List<MobComponentContainer> containers = this.spawn();
+        SpeedComponent[] speeds = containers.stream().map(container -> container.getComponent(SpeedComponent.class)).toArray(SpeedComponent[]::new);
+        for (int tick = 0; tick < VERIFY_TICKS; tick++) {
+            this.mutate(speeds, tick);
+            if (soa) {
+                SpeedStorage.get(Level.OVERWORLD).recalculateDirty();
+            }
+            for (SpeedComponent speed : speeds) {
+                speed.update(0.05f);
+            }
+        }
+
+        float[] results = new float[speeds.length];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = speeds[i].getCurrentSpeed();
+        }
+
+        this.despawn(containers);
+        SpeedStorage.setEnabled(false);
+        return results;
+    }
+
+    private List<MobComponentContainer> spawn() {
+        List<MobComponentContainer> containers = new ArrayList<>(this.mobCount);
+        for (int i = 0; i < this.mobCount; i++) {
+            MobComponentContainer container = new MobComponentContainer(
+                    TestMobs.createZombie((i * 37) % 1024, 64, (i * 101) % 1024));
+            SpeedComponent speed = new SpeedComponent();
+            container.addComponent(speed);
+            for (int j = 0, count = 1 + i % 8; j < count; j++) {
+                speed.addModifier(BenchmarkComponents.modifier(i + j));
+            }
+            containers.add(container);
+        }
+
+        return containers;
+    }
+
+    private void mutate(SpeedComponent[] speeds, int tick) {
+        // 每刻修改所有生物的基础速度，强制全部重新计算
+        for (int i = 0; i < speeds.length; i++) {
+            speeds[i].setBaseSpeed(0.2f + ((i + tick) % 10) * 0.01f);
+        }
+    }
+
+    private void despawn(List<MobComponentContainer> containers) {
+        containers.forEach(MobComponentContainer::shutdown);
+        containers.clear();
+    }
+
+}
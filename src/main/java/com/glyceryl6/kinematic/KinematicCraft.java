@@ -1,9 +1,24 @@
 package com.glyceryl6.kinematic;
 
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.component.speed.SpeedMetricsRegistry;
+import com.glyceryl6.kinematic.component.speed.SpeedModifierBroadcast;
+import com.glyceryl6.kinematic.component.speed.SpeedStorage;
+import com.glyceryl6.kinematic.core.container.ComponentPersistence;
+import com.glyceryl6.kinematic.core.container.ComponentRollout;
+import com.glyceryl6.kinematic.core.container.ComponentTickManager;
+import com.glyceryl6.kinematic.core.container.ContainerRegistry;
+import com.glyceryl6.kinematic.core.container.MobContainers;
+import com.glyceryl6.kinematic.core.event.DeferredEventProcessor;
+import com.glyceryl6.kinematic.core.event.LevelEventBus;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
 import net.neoforged.bus.api.IEventBus;
+import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
 @Mod(KinematicCraft.MOD_ID)
 public class KinematicCraft {
@@ -11,7 +26,34 @@ public class KinematicCraft {
     public static final String MOD_ID = "kinematic_craft";
 
     public KinematicCraft(IEventBus modEventBus, ModContainer modContainer) {
+        MobContainers.ATTACHMENT_TYPES.register(modEventBus);
         NeoForge.EVENT_BUS.register(this);
+        NeoForge.EVENT_BUS.register(ComponentTickManager.getInstance());
+        NeoForge.EVENT_BUS.register(SpeedStorage.class);
+        NeoForge.EVENT_BUS.register(ComponentPersistence.class);
+        ComponentPersistence.register(SpeedComponent.COMPONENT_ID, SpeedComponent.class, SpeedComponent::new);
     }
 
-}
\ No newline at end of file
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent.Pre event) {
+        TickScheduler.tick();
+        DeferredEventProcessor.drain();
+        ComponentRollout.tickAll();
+    }
+
+    @SubscribeEvent
+    public void onServerStopped(ServerStoppedEvent event) {
+        TickScheduler.reset();
+        DeferredEventProcessor.reset();
+        SpeedMetricsRegistry.clear();
+        SpeedModifierBroadcast.clear();
+        SpeedStorage.clearAll();
+        ComponentTickManager.getInstance().reset();
+        ContainerRegistry.clearAll();
+        MobContainers.clear();
+        ComponentPersistence.clear();
+        ComponentRollout.clearAll();
+        LevelEventBus.clearAll();
+    }
+
+}
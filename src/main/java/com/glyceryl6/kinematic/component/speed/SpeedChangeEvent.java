@@ -7,9 +7,13 @@ import com.glyceryl6.kinematic.core.event.ComponentEvent;
 
 /**
  * 速度变化事件
+ * <p>
+ * 速度组件复用同一个实例发布事件，监听器如需在分发结束后持有事件，应调用 {@link #copy()} 或 {@link #retain()}。
  */
 public class SpeedChangeEvent extends ComponentEvent {
 
+    public static final String EVENT_TYPE = "speed_change";
+
     public enum Type {
         MODIFIER_ADDED,
         MODIFIER_REMOVED,
@@ -18,19 +22,73 @@ public class SpeedChangeEvent extends ComponentEvent {
         RECALCULATION
     }
 
-    private final float newSpeed;
-    private final float baseSpeed;
-    private final SpeedModifier affectedModifier;
-    private final Type changeType;
+    private float newSpeed;
+    private float baseSpeed;
+    private SpeedModifier affectedModifier;
+    private Type changeType;
+    private final boolean pooled;
 
     public SpeedChangeEvent(
             SpeedComponent source, float newSpeed, float baseSpeed,
             SpeedModifier affectedModifier, Type changeType) {
-        super("speed_change", source);
+        this(source, newSpeed, baseSpeed, affectedModifier, changeType, false);
+    }
+
+    private SpeedChangeEvent(
+            SpeedComponent source, float newSpeed, float baseSpeed,
+            SpeedModifier affectedModifier, Type changeType, boolean pooled) {
+        super(EVENT_TYPE, source);
+        this.newSpeed = newSpeed;
+        this.baseSpeed = baseSpeed;
+        this.affectedModifier = affectedModifier;
+        this.changeType = changeType;
+        this.pooled = pooled;
+    }
+
+    /**
+     * 创建供速度组件复用的实例
+     */
+    static SpeedChangeEvent pooled(SpeedComponent source) {
+        return new SpeedChangeEvent(source, 0.0f, 0.0f, null, Type.RECALCULATION, true);
+    }
+
+    /**
+     * 以新的内容复用实例
+     */
+    SpeedChangeEvent reuse(SpeedComponent source, float newSpeed, float baseSpeed,
+                           SpeedModifier affectedModifier, Type changeType) {
+        this.reuse(source);
         this.newSpeed = newSpeed;
         this.baseSpeed = baseSpeed;
         this.affectedModifier = affectedModifier;
         this.changeType = changeType;
+        return this;
+    }
+
+    /**
+     * 分发结束后释放对修饰符的引用
+     */
+    void release() {
+        this.affectedModifier = null;
+    }
+
+    /**
+     * 复制为独立的不可复用实例
+     */
+    public SpeedChangeEvent copy() {
+        SpeedChangeEvent copy = new SpeedChangeEvent((SpeedComponent) this.getSource(),
+                this.newSpeed, this.baseSpeed, this.affectedModifier, this.changeType);
+        copy.setCancelled(this.isCancelled());
+        return copy;
+    }
+
+    @Override
+    public ComponentEvent retain() {
+        return this.pooled ? this.copy() : this;
+    }
+
+    public boolean isPooled() {
+        return this.pooled;
     }
 
     public float getNewSpeed() {
@@ -45,6 +103,13 @@ public class SpeedChangeEvent extends ComponentEvent {
         return this.affectedModifier;
     }
 
+    /**
+     * 受影响修饰符的实例 ID，不创建 UUID；没有受影响的修饰符时返回 -1
+     */
+    public long getAffectedModifierId() {
+        return this.affectedModifier != null ? this.affectedModifier.getId() : -1L;
+    }
+
     public Type getChangeType() {
         return this.changeType;
     }
@@ -53,4 +118,4 @@ public class SpeedChangeEvent extends ComponentEvent {
         return this.baseSpeed > 0 ? this.newSpeed / this.baseSpeed : 1.0f;
     }
 
-}
\ No newline at end of file
+}
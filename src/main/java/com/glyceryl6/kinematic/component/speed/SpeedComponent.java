@@ -1,27 +1,63 @@
 package com.glyceryl6.kinematic.component.speed;
 
+import com.glyceryl6.kinematic.KinematicCraft;
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.ConditionEvaluationPolicy;
 import com.glyceryl6.kinematic.component.speed.modifier.ConditionalSpeedModifier;
 import com.glyceryl6.kinematic.component.speed.modifier.ModifierType;
+import com.glyceryl6.kinematic.component.speed.modifier.MultiplicativeSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SetSpeedModifier;
 import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifierTemplate;
 import com.glyceryl6.kinematic.core.architecture.AbstractComponent;
+import com.glyceryl6.kinematic.core.architecture.ComponentSchema;
+import com.glyceryl6.kinematic.core.architecture.ComponentState;
 import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.architecture.EventBus;
+import com.glyceryl6.kinematic.core.architecture.ParallelUpdateComponent;
+import com.glyceryl6.kinematic.core.architecture.StatefulComponent;
 import com.glyceryl6.kinematic.core.dependency.ComponentDependency;
 import com.glyceryl6.kinematic.core.event.ComponentEvent;
+import com.glyceryl6.kinematic.core.event.EventListener;
+import com.glyceryl6.kinematic.core.tick.TickClock;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
+import com.glyceryl6.kinematic.core.tick.TimingWheel;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
 import net.minecraft.world.entity.ai.attributes.Attributes;
 import net.minecraft.world.entity.ai.attributes.AttributeInstance;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 /**
  * 速度组件 - 管理生物移动速度的核心组件
  */
-public class SpeedComponent extends AbstractComponent {
+public class SpeedComponent extends AbstractComponent implements ParallelUpdateComponent, StatefulComponent {
 
     public static final String COMPONENT_ID = "speed";
+    public static final ResourceLocation VANILLA_MODIFIER_ID = ResourceLocation.fromNamespaceAndPath(KinematicCraft.MOD_ID, "speed_component");
+    private static final int MAX_TICK_INTERVAL = 10;
+
+    // 持久化模式：只保存内置的静态修饰符，过期时间保存为游戏时间，编码结果在读档后仍然有效
+    private static final ComponentSchema.Builder MODIFIER_SCHEMA_BUILDER = ComponentSchema.builder("speed_modifier", 1);
+    private static final ComponentSchema.Field MODIFIER_TYPE = MODIFIER_SCHEMA_BUILDER.intField("type");
+    private static final ComponentSchema.Field MODIFIER_NAME = MODIFIER_SCHEMA_BUILDER.stringField("name");
+    private static final ComponentSchema.Field MODIFIER_VALUE = MODIFIER_SCHEMA_BUILDER.floatField("value");
+    private static final ComponentSchema.Field MODIFIER_PRIORITY = MODIFIER_SCHEMA_BUILDER.intField("priority");
+    private static final ComponentSchema.Field MODIFIER_INTERNED = MODIFIER_SCHEMA_BUILDER.booleanField("interned");
+    private static final ComponentSchema.Field MODIFIER_EXPIRATION = MODIFIER_SCHEMA_BUILDER.longField("expiration_game_time");
+    private static final ComponentSchema.Field MODIFIER_ACTIVE = MODIFIER_SCHEMA_BUILDER.booleanField("active");
+    private static final ComponentSchema MODIFIER_SCHEMA = MODIFIER_SCHEMA_BUILDER.build();
+    private static final ComponentSchema.Builder STATE_SCHEMA_BUILDER = ComponentSchema.builder(COMPONENT_ID, 1);
+    private static final ComponentSchema.Field STATE_SYNC_MODE = STATE_SCHEMA_BUILDER.intField("sync_mode");
+    private static final ComponentSchema.Field STATE_MODIFIERS = STATE_SCHEMA_BUILDER.listField("modifiers", MODIFIER_SCHEMA);
+    private static final ComponentSchema STATE_SCHEMA = STATE_SCHEMA_BUILDER.build();
+    // 热替换时额外携带的修饰符实例，不参与持久化
+    private static final String SWAP_LIVE_MODIFIERS = "live_modifiers";
 
     // 依赖组件
 //    @ComponentDependency
@@ -32,20 +68,51 @@ public class SpeedComponent extends AbstractComponent {
     private float currentSpeed;
     private float cachedSpeed;
     private boolean speedDirty = true;
+    // 开启共享存储时速度数据保存在维度的数组中，上面的字段不再使用
+    private SpeedStorage storage;
+    private int storageSlot = -1;
 
     // 修饰符管理
-    private final List<SpeedModifier> modifiers = new CopyOnWriteArrayList<>();
-    private final Map<UUID, SpeedModifier> modifierMap = new ConcurrentHashMap<>();
+    private final SpeedModifierStore modifiers = new SpeedModifierStore();
     private final SpeedModifierCache modifierCache = new SpeedModifierCache();
+    private SpeedModifierPlan modifierPlan = SpeedModifierPlan.IDENTITY;
+    private long planVersion = -1;
+    private long planStamp = -1;
+    private final Map<SpeedModifier, TimingWheel.Timeout> expiryTimeouts = new IdentityHashMap<>();
+    private final Consumer<SpeedModifier> durationListener = this::onModifierDurationChanged;
+    private final List<ConditionalSpeedModifier> cachedConditions = new ArrayList<>();
+    private final Set<String> conditionEventTypes = new HashSet<>();
+    // 属于本组件的监听器，事件送达时只唤醒本组件
+    private final EventListener conditionEventListener = EventListener.owned(this, this::onConditionEvent);
+    private final EventListener environmentListener = EventListener.owned(this, this::onEnvironmentChanged);
+    private final EventListener stateListener = EventListener.owned(this, this::onStateChanged);
+    // 需要在运行时调用 apply 的修饰符数量（条件修饰符和自定义修饰符），不为 0 时不能并行计算
+    private int dynamicModifierCount;
+
+    // 复用的速度变化事件
+    private final SpeedChangeEvent changeEvent = SpeedChangeEvent.pooled(this);
+    private boolean publishingChangeEvent;
 
     // 原版兼容
     private AttributeInstance vanillaSpeedAttribute;
     private float lastVanillaSpeed = -1f;
+    private SyncMode syncMode = SyncMode.TRANSIENT_MODIFIER;
+    private double lastVanillaBaseValue = Double.NaN;
+    private float appliedSpeed = Float.NaN;
 
     // 性能监控
     private long lastCalculationTime = 0;
     private int calculationCount = 0;
     private final SpeedMetrics metrics = new SpeedMetrics();
+    private long parallelComputeNanos;
+    // 休眠期间定期唤醒，检查原版基础值和修饰符激活状态的外部修改
+    private TimingWheel.Timeout idleWakeup;
+    private final Runnable idleWakeupTask = this::onIdleWakeup;
+
+    // 持久化：上次保存时的修饰符版本和修订戳
+    private boolean stateDirty;
+    private long savedModifierVersion = -1;
+    private long savedModifierStamp = -1;
 
     @Override
     public String getComponentId() {
@@ -60,6 +127,7 @@ public class SpeedComponent extends AbstractComponent {
     @Override
     public void onInitialize() {
         Mob mob = context.getMobEntity();
+        this.resetMobState();
 
         // 获取原版速度属性
         this.vanillaSpeedAttribute = mob.getAttribute(Attributes.MOVEMENT_SPEED);
@@ -69,9 +137,18 @@ public class SpeedComponent extends AbstractComponent {
             this.cachedSpeed = baseSpeed;
         }
 
-        // 注册事件监听
-        context.getEventBus().subscribe("environment_changed", this::onEnvironmentChanged);
-        context.getEventBus().subscribe("state_changed", this::onStateChanged);
+        if (SpeedStorage.isEnabled() && mob.level() instanceof ServerLevel) {
+            this.storage = SpeedStorage.forLevel(mob.level());
+            this.storageSlot = this.storage.allocate(this, mob, this.baseSpeed);
+        }
+
+        // 汇总到所在维度的耗时直方图
+        this.metrics.setAggregate(SpeedMetricsRegistry.forLevel(mob.level()));
+
+        // 注册事件监听，两种事件都只标记速度需要重新计算。合并在组件内完成（已标记时直接返回），
+        // 不把事件类型声明为可合并，以免改变同一总线上其他监听器的投递方式
+        context.getEventBus().subscribe("environment_changed", this.environmentListener);
+        context.getEventBus().subscribe("state_changed", this.stateListener);
 
         System.out.println("SpeedComponent initialized for mob: " + mob.getType().getDescription().getString());
     }
@@ -80,13 +157,7 @@ public class SpeedComponent extends AbstractComponent {
     public void update(float deltaTime) {
         long startTime = System.nanoTime();
 
-        // 清理过期的修饰符
-        this.cleanupExpiredModifiers();
-
-        // 检查速度是否需要重新计算
-        if (this.speedDirty || shouldRecalculateSpeed()) {
-            recalculateSpeed();
-        }
+        this.computeSpeed();
 
         // 同步到原版系统
         this.syncWithVanillaSystem();
@@ -96,35 +167,168 @@ public class SpeedComponent extends AbstractComponent {
     }
 
     /**
-     * 添加速度修饰符
+     * 速度已是最新且已同步到原版，并且没有需要每刻求值的修饰符时休眠。
+     * 修饰符变化和到期会标记速度变脏并唤醒组件；原版基础值没有变化回调，休眠期间每 {@link #MAX_TICK_INTERVAL} 刻唤醒一次检查
+     * （在 {@link #onSleep()} 中安排），因此休眠期间对原版基础值的外部修改要到下次唤醒时才生效，见 {@link #pollVanillaBaseValue()}
+     */
+    @Override
+    public boolean isIdle() {
+        if (this.dynamicModifierCount > 0 || !this.cachedConditions.isEmpty() || this.syncMode != SyncMode.TRANSIENT_MODIFIER) {
+            return false;
+        }
+
+        boolean dirty = this.storage != null ? this.storage.isDirty(this.storageSlot) : this.speedDirty;
+        return !dirty && (this.vanillaSpeedAttribute == null || this.getCurrentSpeed() == this.appliedSpeed);
+    }
+
+    /**
+     * 进入休眠时安排定时唤醒，已有未到期的唤醒时沿用，保证休眠后最迟 {@link #MAX_TICK_INTERVAL} 刻检查一次
+     */
+    @Override
+    public void onSleep() {
+        if (this.idleWakeup == null) {
+            this.idleWakeup = TickScheduler.scheduleAfter(MAX_TICK_INTERVAL, this.idleWakeupTask);
+        }
+    }
+
+    private void onIdleWakeup() {
+        this.idleWakeup = null;
+        this.wake();
+    }
+
+    /**
+     * 修饰符在关闭时全部移除，其余状态在重新初始化时清除，可以由回收的容器复用
+     */
+    @Override
+    public boolean isRecyclable() {
+        return true;
+    }
+
+    /**
+     * 清除上一个生物留下的速度、同步和统计状态（新建的组件上不产生变化）
+     */
+    private void resetMobState() {
+        this.baseSpeed = 0;
+        this.currentSpeed = 0;
+        this.cachedSpeed = 0;
+        this.speedDirty = true;
+        this.planStamp = -1;
+        this.syncMode = SyncMode.TRANSIENT_MODIFIER;
+        this.lastVanillaSpeed = -1f;
+        this.lastVanillaBaseValue = Double.NaN;
+        this.appliedSpeed = Float.NaN;
+        this.lastCalculationTime = 0;
+        this.calculationCount = 0;
+        this.metrics.reset();
+        this.stateDirty = false;
+        this.savedModifierVersion = -1;
+        this.savedModifierStamp = -1;
+    }
+
+    /**
+     * 修饰符过期和条件变化最多延迟半秒生效
+     */
+    @Override
+    public int getMaxTickInterval() {
+        return MAX_TICK_INTERVAL;
+    }
+
+    /**
+     * 没有条件修饰符和自定义修饰符时，速度只取决于组件自身状态，可以离开服务端线程计算；共享存储只允许服务端线程访问
+     */
+    @Override
+    public boolean isParallelSafe() {
+        return this.storage == null && this.dynamicModifierCount == 0 && this.cachedConditions.isEmpty();
+    }
+
+    @Override
+    public void computeUpdate(float deltaTime) {
+        long startTime = System.nanoTime();
+        this.computeSpeed();
+        this.parallelComputeNanos = System.nanoTime() - startTime;
+    }
+
+    @Override
+    public void applyUpdate(float deltaTime) {
+        long startTime = System.nanoTime();
+        this.syncWithVanillaSystem();
+        this.updateMetrics(this.parallelComputeNanos + System.nanoTime() - startTime);
+    }
+
+    /**
+     * 计算阶段：检查基础速度、刷新条件并在需要时重新计算速度，不产生组件以外的副作用
+     */
+    private void computeSpeed() {
+        // 检查原版基础速度是否被外部修改
+        if (this.syncMode == SyncMode.TRANSIENT_MODIFIER) {
+            this.pollVanillaBaseValue();
+        }
+
+        // 按策略刷新缓存的条件结果
+        this.refreshConditions();
+
+        if (this.storage != null) {
+            // 变脏的速度通常已在本刻容器更新之前统一计算，这里只处理更新期间才发现的变化
+            if (this.computeModifierStamp() != this.planStamp) {
+                this.storage.markPlanStale(this.storageSlot);
+            }
+            if (this.storage.isDirty(this.storageSlot)) {
+                this.storage.recalculate(this.storageSlot);
+            }
+            return;
+        }
+
+        // 检查速度是否需要重新计算
+        if (this.speedDirty || shouldRecalculateSpeed()) {
+            recalculateSpeed();
+        }
+    }
+
+    /**
+     * 添加速度修饰符，同一实例已经添加过时不做任何修改
      */
     public UUID addModifier(SpeedModifier modifier) {
+        return SpeedModifier.modifierIdOf(this.insertModifier(modifier));
+    }
+
+    /**
+     * 插入修饰符并发布事件，返回实例 ID；UUID 只在公开接口返回时创建
+     */
+    private long insertModifier(SpeedModifier modifier) {
+        if (this.modifiers.contains(modifier.getId())) {
+            return modifier.getId();
+        }
+
         // 移除同名的旧修饰符（如果需要）
         if (this.shouldReplaceExisting(modifier)) {
             this.removeModifiersByName(modifier.getName());
         }
 
+        // 按优先级插入
         this.modifiers.add(modifier);
-        this.modifierMap.put(modifier.getModifierId(), modifier);
-
-        // 按优先级排序
-        this.modifiers.sort(Comparator.comparingInt(SpeedModifier::getPriority).reversed());
-
+        this.onModifierAdded(modifier);
         this.markSpeedDirty();
 
         // 发布速度变化事件
         this.publishSpeedChangeEvent(modifier, SpeedChangeEvent.Type.MODIFIER_ADDED);
 
-        return modifier.getModifierId();
+        return modifier.getId();
     }
 
     /**
      * 移除速度修饰符
      */
     public boolean removeModifier(UUID modifierId) {
-        SpeedModifier modifier = this.modifierMap.remove(modifierId);
+        return this.removeModifier(SpeedModifier.idOf(modifierId));
+    }
+
+    /**
+     * 按实例 ID 移除速度修饰符
+     */
+    public boolean removeModifier(long modifierId) {
+        SpeedModifier modifier = this.modifiers.remove(modifierId);
         if (modifier != null) {
-            this.modifiers.remove(modifier);
+            this.onModifierRemoved(modifier);
             this.markSpeedDirty();
             this.publishSpeedChangeEvent(modifier, SpeedChangeEvent.Type.MODIFIER_REMOVED);
             return true;
@@ -134,11 +338,65 @@ public class SpeedComponent extends AbstractComponent {
     }
 
     /**
-     * 添加临时修饰符（在指定时间后自动移除）
+     * 按共享模板添加速度修饰符
+     */
+    public UUID addModifier(SpeedModifierTemplate template) {
+        return SpeedModifier.modifierIdOf(this.insertModifier(template.create()));
+    }
+
+    /**
+     * 批量施加：插入模板实例但不发布事件，由调用方在批量写入完成后统一通知
+     */
+    SpeedModifier addBatchModifier(SpeedModifierTemplate template) {
+        SpeedModifier modifier = template.create();
+        if (this.shouldReplaceExisting(modifier)) {
+            this.removeModifiersByName(modifier.getName());
+        }
+
+        this.modifiers.add(modifier);
+        this.onModifierAdded(modifier);
+        this.markSpeedDirty();
+        return modifier;
+    }
+
+    /**
+     * 批量移除：移除该模板的全部实例但不发布事件，返回最后一个被移除的实例
+     */
+    SpeedModifier removeTemplateInstances(SpeedModifierTemplate template) {
+        SpeedModifier[] last = new SpeedModifier[1];
+        boolean removed = this.modifiers.removeIf(modifier -> modifier.getTemplate() == template, modifier -> {
+            this.onModifierRemoved(modifier);
+            last[0] = modifier;
+        });
+
+        if (removed) {
+            this.markSpeedDirty();
+        }
+
+        return last[0];
+    }
+
+    /**
+     * 批量操作完成后发布变化事件
+     */
+    void publishBatchChange(SpeedModifier modifier, SpeedChangeEvent.Type type) {
+        this.publishSpeedChangeEvent(modifier, type);
+    }
+
+    /**
+     * 添加临时修饰符（在指定时间后自动移除，按服务端刻计时）
      */
     public UUID addTemporaryModifier(SpeedModifier modifier, long durationMs) {
         modifier.setDuration(durationMs);
-        return addModifier(modifier);
+        return SpeedModifier.modifierIdOf(this.insertModifier(modifier));
+    }
+
+    /**
+     * 添加临时修饰符（在指定刻数后自动移除）
+     */
+    public UUID addTemporaryModifierTicks(SpeedModifier modifier, long durationTicks) {
+        modifier.setDurationTicks(durationTicks);
+        return SpeedModifier.modifierIdOf(this.insertModifier(modifier));
     }
 
     /**
@@ -146,7 +404,16 @@ public class SpeedComponent extends AbstractComponent {
      */
     public UUID addConditionalModifier(String name, SpeedModifier baseModifier, Predicate<Mob> condition) {
         ConditionalSpeedModifier conditionalModifier = new ConditionalSpeedModifier(name, baseModifier, condition);
-        return addModifier(conditionalModifier);
+        return SpeedModifier.modifierIdOf(this.insertModifier(conditionalModifier));
+    }
+
+    /**
+     * 添加带重新求值策略的条件修饰符，两次求值之间使用缓存的结果
+     */
+    public UUID addConditionalModifier(String name, SpeedModifier baseModifier, Predicate<Mob> condition,
+                                       ConditionEvaluationPolicy policy) {
+        ConditionalSpeedModifier conditionalModifier = new ConditionalSpeedModifier(name, baseModifier, condition, policy);
+        return SpeedModifier.modifierIdOf(this.insertModifier(conditionalModifier));
     }
 
     /**
@@ -155,14 +422,14 @@ public class SpeedComponent extends AbstractComponent {
     private void recalculateSpeed() {
         this.calculationCount++;
 
-        float calculatedSpeed = this.baseSpeed;
+        // 修饰符集合或激活状态变化时重新编译执行计划
+        this.compileModifierPlan();
+        long stamp = this.planStamp;
+        long version = this.planVersion;
 
         // 应用所有激活的修饰符
-        for (SpeedModifier modifier : this.modifiers) {
-            if (modifier.isActive()) {
-                calculatedSpeed = modifier.apply(this.baseSpeed, calculatedSpeed, context.getMobEntity());
-            }
-        }
+        Mob mob = context.getMobEntity();
+        float calculatedSpeed = this.modifierPlan.evaluate(this.baseSpeed, mob);
 
         // 确保速度在合理范围内
         calculatedSpeed = Math.max(0, calculatedSpeed);
@@ -173,50 +440,201 @@ public class SpeedComponent extends AbstractComponent {
         this.speedDirty = false;
 
         // 缓存计算结果
-        this.modifierCache.cacheCalculation(this.modifiers, calculatedSpeed);
+        this.modifierCache.cacheCalculation(version, stamp, calculatedSpeed);
+    }
+
+    /**
+     * 返回与当前修饰符集合和激活状态一致的执行计划，必要时重新编译
+     */
+    SpeedModifierPlan compileModifierPlan() {
+        long stamp = this.computeModifierStamp();
+        long version = this.modifiers.getVersion();
+        if (this.planVersion != version || this.planStamp != stamp) {
+            this.modifierPlan = SpeedModifierPlan.compile(this.modifiers.asList());
+            this.planVersion = version;
+            this.planStamp = stamp;
+        }
+
+        return this.modifierPlan;
     }
 
     /**
      * 与原版速度系统同步
      */
     private void syncWithVanillaSystem() {
+        if (vanillaSpeedAttribute == null) {
+            return;
+        }
+
+        if (syncMode == SyncMode.TRANSIENT_MODIFIER) {
+            syncWithTransientModifier();
+        } else {
+            syncWithBaseValue();
+        }
+    }
+
+    /**
+     * 检查原版基础值是否被外部修改
+     * <p>
+     * 原版未提供基础值变化的回调，这里只读取基础值字段，不会像 getValue() 那样触发属性重算。
+     * 检查只在组件更新时进行：组件休眠期间对原版基础值的修改（命令、其他模组等）不会立即生效，
+     * 要到下次唤醒时才被读取，最迟为休眠后 {@link #MAX_TICK_INTERVAL} 刻的定时唤醒。
+     * 需要修改立即生效时，改用 {@link #setBaseSpeed(float)}，或在修改后通过所在容器的 wakeComponent 唤醒组件
+     */
+    private void pollVanillaBaseValue() {
         if (vanillaSpeedAttribute != null) {
-            // 检查原版速度是否被外部修改
-            double currentVanillaSpeed = vanillaSpeedAttribute.getValue();
-            if (Math.abs(currentVanillaSpeed - lastVanillaSpeed) > 0.001f) {
-                // 原版速度被修改，更新我们的基础速度
-                if (Math.abs(currentVanillaSpeed - baseSpeed) > 0.001f) {
-                    baseSpeed = (float) currentVanillaSpeed;
+            double vanillaBaseValue = vanillaSpeedAttribute.getBaseValue();
+            if (vanillaBaseValue != lastVanillaBaseValue) {
+                lastVanillaBaseValue = vanillaBaseValue;
+                // 差值以基础值为参照，基础值变化后需要重新写入
+                appliedSpeed = Float.NaN;
+                if (Math.abs(vanillaBaseValue - getBaseSpeed()) > 0.001f) {
+                    storeBaseSpeed((float) vanillaBaseValue);
                     markSpeedDirty();
                 }
-                lastVanillaSpeed = (float) currentVanillaSpeed;
             }
+        }
+    }
+
+    /**
+     * 以单个临时属性修饰符的形式写入计算结果，只在结果变化时写入
+     */
+    private void syncWithTransientModifier() {
+        float currentSpeed = getCurrentSpeed();
+        if (currentSpeed == appliedSpeed) {
+            return;
+        }
+
+        appliedSpeed = currentSpeed;
+        double delta = currentSpeed - vanillaSpeedAttribute.getBaseValue();
+        if (delta == 0.0) {
+            vanillaSpeedAttribute.removeModifier(VANILLA_MODIFIER_ID);
+        } else {
+            vanillaSpeedAttribute.addOrUpdateTransientModifier(
+                    new AttributeModifier(VANILLA_MODIFIER_ID, delta, AttributeModifier.Operation.ADD_VALUE));
+        }
+    }
+
+    /**
+     * 直接覆盖原版基础值（旧同步方式）
+     */
+    private void syncWithBaseValue() {
+        // 检查原版速度是否被外部修改
+        double currentVanillaSpeed = vanillaSpeedAttribute.getValue();
+        if (Math.abs(currentVanillaSpeed - lastVanillaSpeed) > 0.001f) {
+            // 原版速度被修改，更新我们的基础速度
+            if (Math.abs(currentVanillaSpeed - getBaseSpeed()) > 0.001f) {
+                storeBaseSpeed((float) currentVanillaSpeed);
+                markSpeedDirty();
+            }
+            lastVanillaSpeed = (float) currentVanillaSpeed;
+        }
+
+        // 如果我们的计算速度与原版不同，则更新原版系统
+        float currentSpeed = getCurrentSpeed();
+        if (Math.abs(currentSpeed - currentVanillaSpeed) > 0.001f) {
+            vanillaSpeedAttribute.setBaseValue(currentSpeed);
+            lastVanillaSpeed = currentSpeed;
+        }
+    }
+
+    /**
+     * 修饰符加入存储后：登记过期时间和条件求值策略
+     */
+    private void onModifierAdded(SpeedModifier modifier) {
+        SpeedModifierHolders.track(modifier.getTemplate(), this);
+        if (this.storage != null) {
+            this.storage.markPlanStale(this.storageSlot);
+        }
+        if (!SpeedModifierPlan.isStatic(modifier)) {
+            this.dynamicModifierCount++;
+        }
+        modifier.setDurationListener(this.durationListener);
+        this.scheduleExpiry(modifier);
 
-            // 如果我们的计算速度与原版不同，则更新原版系统
-            if (Math.abs(currentSpeed - currentVanillaSpeed) > 0.001f) {
-                vanillaSpeedAttribute.setBaseValue(currentSpeed);
-                lastVanillaSpeed = currentSpeed;
+        if (modifier instanceof ConditionalSpeedModifier conditional && !conditional.getPolicy().isAlways()) {
+            this.cachedConditions.add(conditional);
+            for (String eventType : conditional.getPolicy().getInvalidatingEvents()) {
+                if (this.conditionEventTypes.add(eventType)) {
+                    context.getEventBus().subscribe(eventType, this.conditionEventListener);
+                }
             }
         }
     }
 
     /**
-     * 清理过期的修饰符
+     * 修饰符移出存储后：取消过期任务和条件跟踪
+     */
+    private void onModifierRemoved(SpeedModifier modifier) {
+        SpeedModifierHolders.untrack(modifier.getTemplate(), this);
+        if (this.storage != null) {
+            this.storage.markPlanStale(this.storageSlot);
+        }
+        if (!SpeedModifierPlan.isStatic(modifier)) {
+            this.dynamicModifierCount--;
+        }
+        if (modifier.getDurationListener() == this.durationListener) {
+            modifier.setDurationListener(null);
+        }
+        TimingWheel.Timeout timeout = this.expiryTimeouts.remove(modifier);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+
+        if (modifier instanceof ConditionalSpeedModifier conditional) {
+            this.cachedConditions.remove(conditional);
+        }
+    }
+
+    /**
+     * 按修饰符当前的过期时间登记时间轮任务
+     */
+    private void scheduleExpiry(SpeedModifier modifier) {
+        long expirationTick = modifier.getExpirationTick();
+        if (expirationTick >= 0) {
+            TimingWheel.Timeout timeout = TickScheduler.schedule(expirationTick, () -> this.expireModifier(modifier));
+            this.expiryTimeouts.put(modifier, timeout);
+        }
+    }
+
+    /**
+     * 已加入的修饰符修改了持续时间：取消原来的过期任务并按新的过期时间重新登记
+     */
+    private void onModifierDurationChanged(SpeedModifier modifier) {
+        TimingWheel.Timeout timeout = this.expiryTimeouts.remove(modifier);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+        this.scheduleExpiry(modifier);
+        this.markSpeedDirty();
+    }
+
+    /**
+     * 刷新缓存条件，结果变化时标记速度需要重新计算
      */
-    private void cleanupExpiredModifiers() {
-        Iterator<SpeedModifier> iterator = modifiers.iterator();
-        boolean removed = false;
-        while (iterator.hasNext()) {
-            SpeedModifier modifier = iterator.next();
-            if (modifier.isExpired()) {
-                iterator.remove();
-                modifierMap.remove(modifier.getModifierId());
-                removed = true;
+    private void refreshConditions() {
+        if (this.cachedConditions.isEmpty()) {
+            return;
+        }
+
+        Mob mob = context.getMobEntity();
+        long currentTick = TickClock.currentTick();
+        for (int i = 0, size = this.cachedConditions.size(); i < size; i++) {
+            if (this.cachedConditions.get(i).refresh(mob, currentTick)) {
+                this.markSpeedDirty();
             }
         }
+    }
 
-        if (removed) {
-            markSpeedDirty();
+    /**
+     * 时间轮回调：移除到期的修饰符
+     */
+    private void expireModifier(SpeedModifier modifier) {
+        this.expiryTimeouts.remove(modifier);
+        if (this.modifiers.remove(modifier.getId()) != null) {
+            this.onModifierRemoved(modifier);
+            this.markSpeedDirty();
+            this.publishSpeedChangeEvent(modifier, SpeedChangeEvent.Type.MODIFIER_EXPIRED);
         }
     }
 
@@ -224,21 +642,46 @@ public class SpeedComponent extends AbstractComponent {
      * 检查是否需要重新计算速度
      */
     private boolean shouldRecalculateSpeed() {
-        // 使用缓存检查
-        if (modifierCache.isCalculationCached(modifiers)) {
-            currentSpeed = modifierCache.getCachedSpeed(modifiers);
+        // 使用缓存检查（按版本号查找，不产生分配）
+        if (modifierCache.isCalculationCached(modifiers.getVersion(), computeModifierStamp())) {
+            currentSpeed = modifierCache.getCachedSpeed();
             return false;
         }
 
-        // 定期重新计算（每10帧）
-        return calculationCount % 10 == 0;
+        // 修饰符激活状态发生了变化，缓存已失效
+        return true;
+    }
+
+    /**
+     * 计算修饰符修订戳（各修饰符修订号之和，只增不减）
+     */
+    private long computeModifierStamp() {
+        long stamp = 0;
+        for (int i = 0, size = modifiers.size(); i < size; i++) {
+            stamp += modifiers.get(i).getRevision();
+        }
+
+        return stamp;
     }
 
     /**
      * 标记速度需要重新计算
      */
     private void markSpeedDirty() {
-        speedDirty = true;
+        if (storage != null) {
+            storage.markDirty(storageSlot);
+        } else {
+            speedDirty = true;
+        }
+        this.wake();
+    }
+
+    private void storeBaseSpeed(float baseSpeed) {
+        if (storage != null) {
+            storage.setBase(storageSlot, baseSpeed);
+        } else {
+            this.baseSpeed = baseSpeed;
+        }
     }
 
     /**
@@ -253,32 +696,62 @@ public class SpeedComponent extends AbstractComponent {
      * 按名称移除修饰符
      */
     private void removeModifiersByName(String name) {
-        this.modifiers.removeIf(modifier -> {
-            if (modifier.getName().equals(name)) {
-                this.modifierMap.remove(modifier.getModifierId());
-                return true;
-            }
-            return false;
-        });
+        if (this.modifiers.removeByName(name, this::onModifierRemoved) > 0) {
+            this.markSpeedDirty();
+        }
     }
 
     // 事件处理
     private void onEnvironmentChanged(ComponentEvent event) {
         // 环境变化可能导致速度需要调整
-        this.markSpeedDirty();
+        this.markSpeedDirtyIfClean();
     }
 
     private void onStateChanged(ComponentEvent event) {
         // 状态变化可能影响速度
-        this.markSpeedDirty();
+        this.markSpeedDirtyIfClean();
+    }
+
+    /**
+     * 速度尚未标记时才标记并唤醒，同一刻内的多个变化事件只处理第一个
+     */
+    private void markSpeedDirtyIfClean() {
+        boolean dirty = this.storage != null ? this.storage.isDirty(this.storageSlot) : this.speedDirty;
+        if (!dirty) {
+            this.markSpeedDirty();
+        }
+    }
+
+    private void onConditionEvent(ComponentEvent event) {
+        // 使依赖该事件的条件缓存失效，下次更新时重新求值
+        String eventType = event.getEventType();
+        for (int i = 0, size = this.cachedConditions.size(); i < size; i++) {
+            this.cachedConditions.get(i).invalidate(eventType);
+        }
     }
 
     /**
      * 发布速度变化事件
      */
     private void publishSpeedChangeEvent(SpeedModifier modifier, SpeedChangeEvent.Type type) {
-        SpeedChangeEvent event = new SpeedChangeEvent(this, currentSpeed, baseSpeed, modifier, type);
-        context.getEventBus().post(event);
+        EventBus eventBus = context.getEventBus();
+        if (!eventBus.hasListeners(SpeedChangeEvent.EVENT_TYPE, SpeedChangeEvent.class)) {
+            return;
+        }
+
+        // 监听器在分发期间再次触发发布时，改用新实例，避免覆盖正在分发的事件
+        if (this.publishingChangeEvent) {
+            eventBus.post(new SpeedChangeEvent(this, getCurrentSpeed(), getBaseSpeed(), modifier, type));
+            return;
+        }
+
+        this.publishingChangeEvent = true;
+        try {
+            eventBus.post(this.changeEvent.reuse(this, getCurrentSpeed(), getBaseSpeed(), modifier, type));
+        } finally {
+            this.changeEvent.release();
+            this.publishingChangeEvent = false;
+        }
     }
 
     /**
@@ -290,26 +763,56 @@ public class SpeedComponent extends AbstractComponent {
 
     // ========== 公共API ==========
 
+    /**
+     * 获取原版同步方式
+     */
+    public SyncMode getSyncMode() {
+        return this.syncMode;
+    }
+
+    /**
+     * 设置原版同步方式，切换时撤销旧方式写入的结果
+     */
+    public void setSyncMode(SyncMode syncMode) {
+        if (this.syncMode == syncMode) {
+            return;
+        }
+
+        if (this.vanillaSpeedAttribute != null) {
+            if (this.syncMode == SyncMode.TRANSIENT_MODIFIER) {
+                this.vanillaSpeedAttribute.removeModifier(VANILLA_MODIFIER_ID);
+            } else {
+                this.vanillaSpeedAttribute.setBaseValue(this.getBaseSpeed());
+            }
+        }
+
+        this.syncMode = syncMode;
+        this.stateDirty = true;
+        this.appliedSpeed = Float.NaN;
+        this.lastVanillaBaseValue = Double.NaN;
+        this.lastVanillaSpeed = -1f;
+    }
+
     /**
      * 获取当前速度
      */
     public float getCurrentSpeed() {
-        return this.currentSpeed;
+        return this.storage != null ? this.storage.getCurrent(this.storageSlot) : this.currentSpeed;
     }
 
     /**
      * 获取基础速度
      */
     public float getBaseSpeed() {
-        return this.baseSpeed;
+        return this.storage != null ? this.storage.getBase(this.storageSlot) : this.baseSpeed;
     }
 
     /**
      * 设置基础速度
      */
     public void setBaseSpeed(float baseSpeed) {
-        if (Math.abs(this.baseSpeed - baseSpeed) > 0.001f) {
-            this.baseSpeed = baseSpeed;
+        if (Math.abs(this.getBaseSpeed() - baseSpeed) > 0.001f) {
+            this.storeBaseSpeed(baseSpeed);
             markSpeedDirty();
         }
     }
@@ -318,16 +821,16 @@ public class SpeedComponent extends AbstractComponent {
      * 获取所有激活的修饰符
      */
     public List<SpeedModifier> getActiveModifiers() {
-        return this.modifiers.stream().filter(SpeedModifier::isActive)
-                .sorted(Comparator.comparingInt(SpeedModifier::getPriority).reversed())
-                .toList();
+        // 存储本身已按优先级排序
+        return this.modifiers.asList().stream().filter(SpeedModifier::isActive).toList();
     }
 
     /**
      * 获取速度乘数（当前速度/基础速度）
      */
     public float getSpeedMultiplier() {
-        return this.baseSpeed > 0 ? this.currentSpeed / this.baseSpeed : 1.0f;
+        float baseSpeed = this.getBaseSpeed();
+        return baseSpeed > 0 ? this.getCurrentSpeed() / baseSpeed : 1.0f;
     }
 
     /**
@@ -335,12 +838,9 @@ public class SpeedComponent extends AbstractComponent {
      */
     public void clearTemporaryModifiers() {
         boolean removed = this.modifiers.removeIf(modifier ->
-                modifier.isExpired() || modifier.getType() == ModifierType.ADDITIVE
-        );
+                modifier.isExpired() || modifier.getType() == ModifierType.ADDITIVE, this::onModifierRemoved);
 
         if (removed) {
-            this.modifierMap.clear();
-            this.modifiers.forEach(mod -> this.modifierMap.put(mod.getModifierId(), mod));
             markSpeedDirty();
         }
     }
@@ -352,19 +852,218 @@ public class SpeedComponent extends AbstractComponent {
         return this.metrics.copy();
     }
 
+    // ========== 持久化 ==========
+
+    @Override
+    public ComponentSchema getStateSchema() {
+        return STATE_SCHEMA;
+    }
+
+    /**
+     * 保存同步方式和内置的静态修饰符，条件修饰符和自定义修饰符无法重建，不保存（热替换时见 {@link #saveStateForSwap()}）；
+     * 基础速度以原版属性为准，也不保存
+     */
+    @Override
+    public ComponentState saveState() {
+        ComponentState state = new ComponentState(STATE_SCHEMA);
+        state.setInt(STATE_SYNC_MODE, this.syncMode.ordinal());
+        long currentTick = TickClock.currentTick();
+        long gameTime = context.getMobEntity().level().getGameTime();
+        for (int i = 0, size = this.modifiers.size(); i < size; i++) {
+            SpeedModifier modifier = this.modifiers.get(i);
+            if (!SpeedModifierPlan.isStatic(modifier) || modifier.isExpired()) {
+                continue;
+            }
+
+            ComponentState element = state.addElement(STATE_MODIFIERS);
+            element.setInt(MODIFIER_TYPE, modifier.getType().ordinal());
+            element.setString(MODIFIER_NAME, modifier.getName());
+            element.setFloat(MODIFIER_VALUE, modifier.getValue());
+            element.setInt(MODIFIER_PRIORITY, modifier.getPriority());
+            element.setBoolean(MODIFIER_INTERNED, modifier.getTemplate().isInterned());
+            long expirationTick = modifier.getExpirationTick();
+            element.setLong(MODIFIER_EXPIRATION, expirationTick >= 0 ? gameTime + (expirationTick - currentTick) : -1);
+            element.setBoolean(MODIFIER_ACTIVE, modifier.isActive());
+        }
+
+        return state;
+    }
+
+    /**
+     * 在初始化之后恢复，不发布速度变化事件
+     */
+    @Override
+    public void restoreState(ComponentState state) {
+        if (state.getSchema() != STATE_SCHEMA) {
+            return;
+        }
+
+        SyncMode[] syncModes = SyncMode.values();
+        int syncMode = state.getInt(STATE_SYNC_MODE);
+        if (syncMode >= 0 && syncMode < syncModes.length) {
+            this.setSyncMode(syncModes[syncMode]);
+        }
+
+        // 热替换时直接接管旧组件的修饰符实例，保留条件修饰符、自定义修饰符和已返回给调用方的 ID
+        List<?> live = state.get(SWAP_LIVE_MODIFIERS, List.class);
+        if (live != null) {
+            for (Object element : live) {
+                if (element instanceof SpeedModifier modifier && !modifier.isExpired()
+                        && !this.modifiers.contains(modifier.getId())) {
+                    this.restoreModifier(modifier);
+                }
+            }
+            return;
+        }
+
+        ModifierType[] types = ModifierType.values();
+        long gameTime = context.getMobEntity().level().getGameTime();
+        for (ComponentState element : state.getList(STATE_MODIFIERS)) {
+            int type = element.getInt(MODIFIER_TYPE);
+            if (type < 0 || type >= types.length) {
+                continue;
+            }
+
+            SpeedModifier modifier = this.createModifier(types[type], element.getString(MODIFIER_NAME),
+                    element.getFloat(MODIFIER_VALUE), element.getInt(MODIFIER_PRIORITY), element.getBoolean(MODIFIER_INTERNED));
+            if (modifier == null) {
+                continue;
+            }
+
+            long expiration = element.getLong(MODIFIER_EXPIRATION);
+            if (expiration >= 0) {
+                long remaining = expiration - gameTime;
+                if (remaining <= 0) {
+                    continue;
+                }
+                modifier.setDurationTicks(remaining);
+            }
+            modifier.setActive(element.getBoolean(MODIFIER_ACTIVE));
+            this.restoreModifier(modifier);
+        }
+    }
+
+    /**
+     * 在持久化状态之外交出全部未过期的修饰符实例，由新组件在 {@link #restoreState} 中接管；
+     * 不认识这些实例的实现仍可以读取持久化部分
+     */
+    @Override
+    public ComponentState saveStateForSwap() {
+        ComponentState state = this.saveState();
+        List<SpeedModifier> live = new ArrayList<>();
+        for (int i = 0, size = this.modifiers.size(); i < size; i++) {
+            SpeedModifier modifier = this.modifiers.get(i);
+            if (!modifier.isExpired()) {
+                live.add(modifier);
+            }
+        }
+
+        state.put(SWAP_LIVE_MODIFIERS, live);
+        return state;
+    }
+
+    private void restoreModifier(SpeedModifier modifier) {
+        if (this.shouldReplaceExisting(modifier)) {
+            this.removeModifiersByName(modifier.getName());
+        }
+        this.modifiers.add(modifier);
+        this.onModifierAdded(modifier);
+        this.markSpeedDirty();
+    }
+
+    private SpeedModifier createModifier(ModifierType type, String name, float value, int priority, boolean interned) {
+        if (name == null || (type != ModifierType.ADDITIVE && type != ModifierType.MULTIPLICATIVE && type != ModifierType.SET)) {
+            return null;
+        }
+
+        if (interned) {
+            return SpeedModifierTemplate.intern(type, name, value, priority).create();
+        }
+
+        return switch (type) {
+            case ADDITIVE -> new AdditiveSpeedModifier(name, value, priority);
+            case MULTIPLICATIVE -> new MultiplicativeSpeedModifier(name, value, priority);
+            case SET -> new SetSpeedModifier(name, value, priority);
+            default -> null;
+        };
+    }
+
+    @Override
+    public boolean isStateDirty() {
+        return this.stateDirty || this.modifiers.getVersion() != this.savedModifierVersion
+                || this.computeModifierStamp() != this.savedModifierStamp;
+    }
+
+    @Override
+    public void markStateSaved() {
+        this.stateDirty = false;
+        this.savedModifierVersion = this.modifiers.getVersion();
+        this.savedModifierStamp = this.computeModifierStamp();
+    }
+
     @Override
     public void onShutdown() {
+        // 数据移回组件字段并释放共享存储的槽位
+        if (storage != null) {
+            baseSpeed = storage.getBase(storageSlot);
+            currentSpeed = storage.getCurrent(storageSlot);
+            storage.release(storageSlot);
+            storage = null;
+            storageSlot = -1;
+        }
+
         // 恢复原版速度
         if (vanillaSpeedAttribute != null) {
-            vanillaSpeedAttribute.setBaseValue(baseSpeed);
+            if (syncMode == SyncMode.TRANSIENT_MODIFIER) {
+                vanillaSpeedAttribute.removeModifier(VANILLA_MODIFIER_ID);
+            } else {
+                vanillaSpeedAttribute.setBaseValue(baseSpeed);
+            }
         }
+        appliedSpeed = Float.NaN;
+        lastVanillaBaseValue = Double.NaN;
+        vanillaSpeedAttribute = null;
 
         // 清理资源
+        if (idleWakeup != null) {
+            idleWakeup.cancel();
+            idleWakeup = null;
+        }
+        expiryTimeouts.values().forEach(TimingWheel.Timeout::cancel);
+        expiryTimeouts.clear();
+        cachedConditions.clear();
+        context.getEventBus().unsubscribe("environment_changed", environmentListener);
+        context.getEventBus().unsubscribe("state_changed", stateListener);
+        conditionEventTypes.forEach(eventType -> context.getEventBus().unsubscribe(eventType, conditionEventListener));
+        conditionEventTypes.clear();
+        for (int i = 0, size = modifiers.size(); i < size; i++) {
+            SpeedModifier modifier = modifiers.get(i);
+            SpeedModifierHolders.untrack(modifier.getTemplate(), this);
+            if (modifier.getDurationListener() == durationListener) {
+                modifier.setDurationListener(null);
+            }
+        }
         modifiers.clear();
-        modifierMap.clear();
+        dynamicModifierCount = 0;
         modifierCache.clear();
+        modifierPlan = SpeedModifierPlan.IDENTITY;
+        planVersion = -1;
 
         System.out.println("SpeedComponent shutdown for mob: " + context.getMobEntity().getType().getDescription().getString());
     }
 
+    /**
+     * 与原版速度属性的同步方式
+     */
+    public enum SyncMode {
+        /**
+         * 以临时属性修饰符写入差值，只在结果变化时写入
+         */
+        TRANSIENT_MODIFIER,
+        /**
+         * 每刻比较并覆盖原版基础值
+         */
+        BASE_VALUE
+    }
+
 }
\ No newline at end of file
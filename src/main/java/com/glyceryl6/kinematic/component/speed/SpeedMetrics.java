@@ -1,52 +1,77 @@
 package com.glyceryl6.kinematic.component.speed;
 
-import java.util.concurrent.atomic.AtomicLong;
+import com.glyceryl6.kinematic.core.metrics.LatencyHistogram;
 
 /**
  * 速度计算性能监控
+ * <p>
+ * 单个生物的统计只由服务端线程写入，使用普通字段；耗时分布汇总到所在维度的共享直方图，
+ * 见 {@link SpeedMetricsRegistry}。
  */
 public class SpeedMetrics {
 
-    private final AtomicLong totalCalculationTime = new AtomicLong(0);
-    private final AtomicLong calculationCount = new AtomicLong(0);
-    private final AtomicLong maxCalculationTime = new AtomicLong(0);
-    private final AtomicLong averageModifierCount = new AtomicLong(0);
+    private long totalCalculationTime;
+    private long calculationCount;
+    private long maxCalculationTime;
+    private double averageModifierCount;
+    private LatencyHistogram aggregate;
 
     public void recordCalculation(long calculationTimeNanos, int modifierCount) {
-        this.totalCalculationTime.addAndGet(calculationTimeNanos);
-        this.calculationCount.incrementAndGet();
-        this.maxCalculationTime.updateAndGet(current -> Math.max(current, calculationTimeNanos));
-        // 更新平均修饰符数量（滑动平均）
-        long currentCount = this.averageModifierCount.get();
-        long newCount = (currentCount * 9 + modifierCount) / 10;
-        this.averageModifierCount.set(newCount);
+        this.totalCalculationTime += calculationTimeNanos;
+        this.calculationCount++;
+        if (calculationTimeNanos > this.maxCalculationTime) {
+            this.maxCalculationTime = calculationTimeNanos;
+        }
+        // 更新平均修饰符数量（指数滑动平均）
+        this.averageModifierCount = this.calculationCount == 1
+                ? modifierCount : this.averageModifierCount * 0.9 + modifierCount * 0.1;
+        if (this.aggregate != null) {
+            this.aggregate.record(calculationTimeNanos);
+        }
+    }
+
+    /**
+     * 设置汇总直方图
+     */
+    public void setAggregate(LatencyHistogram aggregate) {
+        this.aggregate = aggregate;
     }
 
     public double getAverageCalculationTimeMicros() {
-        long count = this.calculationCount.get();
+        long count = this.calculationCount;
         if (count == 0) return 0;
-        return this.totalCalculationTime.get() / (count * 1000.0);
+        return this.totalCalculationTime / (count * 1000.0);
     }
 
     public double getMaxCalculationTimeMicros() {
-        return this.maxCalculationTime.get() / 1000.0;
+        return this.maxCalculationTime / 1000.0;
     }
 
     public long getTotalCalculations() {
-        return this.calculationCount.get();
+        return this.calculationCount;
     }
 
     public double getAverageModifierCount() {
-        return this.averageModifierCount.get();
+        return this.averageModifierCount;
+    }
+
+    /**
+     * 清除单个生物的统计，汇总直方图保持不变
+     */
+    public void reset() {
+        this.totalCalculationTime = 0;
+        this.calculationCount = 0;
+        this.maxCalculationTime = 0;
+        this.averageModifierCount = 0;
     }
 
     public SpeedMetrics copy() {
         SpeedMetrics copy = new SpeedMetrics();
-        copy.totalCalculationTime.set(this.totalCalculationTime.get());
-        copy.calculationCount.set(this.calculationCount.get());
-        copy.maxCalculationTime.set(this.maxCalculationTime.get());
-        copy.averageModifierCount.set(this.averageModifierCount.get());
+        copy.totalCalculationTime = this.totalCalculationTime;
+        copy.calculationCount = this.calculationCount;
+        copy.maxCalculationTime = this.maxCalculationTime;
+        copy.averageModifierCount = this.averageModifierCount;
         return copy;
     }
 
-}
\ No newline at end of file
+}
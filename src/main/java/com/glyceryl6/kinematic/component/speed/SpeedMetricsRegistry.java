@@ -0,0 +1,57 @@
+package com.glyceryl6.kinematic.component.speed;
+
+import com.glyceryl6.kinematic.core.metrics.HistogramSnapshot;
+import com.glyceryl6.kinematic.core.metrics.LatencyHistogram;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.level.Level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 速度组件更新耗时的汇总注册表，按维度保存直方图，可合并为全服视图
+ */
+public final class SpeedMetricsRegistry {
+
+    private static final Map<ResourceKey<Level>, LatencyHistogram> LEVEL_HISTOGRAMS = new ConcurrentHashMap<>();
+
+    private SpeedMetricsRegistry() {}
+
+    /**
+     * 获取维度的汇总直方图，组件初始化时获取一次并缓存
+     */
+    public static LatencyHistogram forLevel(Level level) {
+        return LEVEL_HISTOGRAMS.computeIfAbsent(level.dimension(), key -> new LatencyHistogram());
+    }
+
+    /**
+     * 获取单个维度的快照，维度没有数据时返回 null
+     */
+    public static HistogramSnapshot snapshot(ResourceKey<Level> dimension) {
+        LatencyHistogram histogram = LEVEL_HISTOGRAMS.get(dimension);
+        return histogram != null ? histogram.snapshot() : null;
+    }
+
+    /**
+     * 获取所有维度合并后的快照
+     */
+    public static HistogramSnapshot snapshotGlobal() {
+        List<HistogramSnapshot> snapshots = new ArrayList<>(LEVEL_HISTOGRAMS.size());
+        for (LatencyHistogram histogram : LEVEL_HISTOGRAMS.values()) {
+            snapshots.add(histogram.snapshot());
+        }
+
+        return HistogramSnapshot.merge(snapshots);
+    }
+
+    public static void reset() {
+        LEVEL_HISTOGRAMS.values().forEach(LatencyHistogram::reset);
+    }
+
+    public static void clear() {
+        LEVEL_HISTOGRAMS.clear();
+    }
+
+}
@@ -0,0 +1,133 @@
+// SpeedModifierBroadcast.java - 批量速度修饰符
+package com.glyceryl6.kinematic.component.speed;
+
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifierTemplate;
+import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.container.ContainerRegistry;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.phys.AABB;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * 服务端批量施加和移除速度修饰符，用于袭击、天气减速、首领光环等全体效果
+ * <p>
+ * 先在一次遍历中为所有选中的组件创建并插入修饰符实例，全部写入完成后再逐个发布变化事件，
+ * 监听器看到的始终是批量操作完成后的状态。模板必须通过 {@link SpeedModifierTemplate#intern} 获取，
+ * 这样 {@link #remove} 可以通过反向索引只访问受影响的组件。只允许在服务端线程调用。
+ */
+public final class SpeedModifierBroadcast {
+
+    private SpeedModifierBroadcast() {
+    }
+
+    /**
+     * 对维度内指定实体类型的所有生物施加修饰符，返回受影响的组件数
+     */
+    public static int applyToType(ServerLevel level, EntityType<?> entityType, SpeedModifierTemplate template) {
+        return apply(level, mob -> mob.getType() == entityType, template);
+    }
+
+    /**
+     * 对维度内属于指定实体类型标签的所有生物施加修饰符
+     */
+    public static int applyToTag(ServerLevel level, TagKey<EntityType<?>> tag, SpeedModifierTemplate template) {
+        return apply(level, mob -> mob.getType().is(tag), template);
+    }
+
+    /**
+     * 对指定区域内的所有生物施加修饰符，区域查询走原版实体分区
+     */
+    public static int applyInArea(ServerLevel level, AABB area, SpeedModifierTemplate template) {
+        ContainerRegistry registry = ContainerRegistry.forLevel(level);
+        List<SpeedComponent> targets = new ArrayList<>();
+        for (Mob mob : level.getEntitiesOfClass(Mob.class, area)) {
+            addTarget(targets, registry.get(mob.getId()));
+        }
+
+        return applyAll(targets, template);
+    }
+
+    /**
+     * 对维度内满足条件的所有生物施加修饰符
+     */
+    public static int apply(ServerLevel level, Predicate<Mob> selector, SpeedModifierTemplate template) {
+        List<SpeedComponent> targets = new ArrayList<>();
+        ContainerRegistry.forLevel(level).forEach(container -> {
+            if (selector.test(container.getMobEntity())) {
+                addTarget(targets, container);
+            }
+        });
+
+        return applyAll(targets, template);
+    }
+
+    /**
+     * 从所有持有者移除该模板的全部实例，只访问受影响的组件，返回受影响的组件数
+     */
+    public static int remove(SpeedModifierTemplate template) {
+        List<SpeedComponent> holders = SpeedModifierHolders.holdersOf(template);
+        List<SpeedModifier> removed = new ArrayList<>(holders.size());
+        for (SpeedComponent holder : holders) {
+            removed.add(holder.removeTemplateInstances(template));
+        }
+
+        for (int i = 0; i < holders.size(); i++) {
+            SpeedModifier modifier = removed.get(i);
+            if (modifier != null) {
+                holders.get(i).publishBatchChange(modifier, SpeedChangeEvent.Type.MODIFIER_REMOVED);
+            }
+        }
+
+        return holders.size();
+    }
+
+    /**
+     * 当前持有该模板实例的组件数
+     */
+    public static int countHolders(SpeedModifierTemplate template) {
+        return SpeedModifierHolders.countHolders(template);
+    }
+
+    /**
+     * 服务器停止时清空反向索引
+     */
+    public static void clear() {
+        SpeedModifierHolders.clear();
+    }
+
+    private static void addTarget(List<SpeedComponent> targets, MobComponentContainer container) {
+        if (container != null && container.isActive()) {
+            SpeedComponent component = container.getComponent(ComponentType.SPEED);
+            if (component != null) {
+                targets.add(component);
+            }
+        }
+    }
+
+    private static int applyAll(List<SpeedComponent> targets, SpeedModifierTemplate template) {
+        if (!template.isInterned()) {
+            throw new IllegalArgumentException("Broadcast modifiers must use an interned template: " + template.getName());
+        }
+
+        int size = targets.size();
+        SpeedModifier[] added = new SpeedModifier[size];
+        for (int i = 0; i < size; i++) {
+            added[i] = targets.get(i).addBatchModifier(template);
+        }
+
+        for (int i = 0; i < size; i++) {
+            targets.get(i).publishBatchChange(added[i], SpeedChangeEvent.Type.MODIFIER_ADDED);
+        }
+
+        return size;
+    }
+
+}
@@ -0,0 +1,67 @@
+// SpeedModifierHolders.java - 修饰符模板反向索引
+package com.glyceryl6.kinematic.component.speed;
+
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifierTemplate;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 共享模板到持有该模板实例的速度组件的反向索引
+ * <p>
+ * 只记录通过 {@link SpeedModifierTemplate#intern} 获取的模板，按模板移除时只访问受影响的组件。
+ * 同一组件可能持有同一模板的多个实例，按引用计数登记。只允许在服务端线程访问。
+ */
+final class SpeedModifierHolders {
+
+    private static final Map<SpeedModifierTemplate, Map<SpeedComponent, int[]>> HOLDERS = new IdentityHashMap<>();
+
+    private SpeedModifierHolders() {
+    }
+
+    static void track(SpeedModifierTemplate template, SpeedComponent holder) {
+        if (template.isInterned()) {
+            HOLDERS.computeIfAbsent(template, key -> new IdentityHashMap<>())
+                    .computeIfAbsent(holder, key -> new int[1])[0]++;
+        }
+    }
+
+    static void untrack(SpeedModifierTemplate template, SpeedComponent holder) {
+        if (!template.isInterned()) {
+            return;
+        }
+
+        Map<SpeedComponent, int[]> holders = HOLDERS.get(template);
+        if (holders == null) {
+            return;
+        }
+
+        int[] count = holders.get(holder);
+        if (count != null && --count[0] <= 0) {
+            holders.remove(holder);
+            if (holders.isEmpty()) {
+                HOLDERS.remove(template);
+            }
+        }
+    }
+
+    /**
+     * 复制当前持有该模板的组件，遍历期间允许修改索引
+     */
+    static List<SpeedComponent> holdersOf(SpeedModifierTemplate template) {
+        Map<SpeedComponent, int[]> holders = HOLDERS.get(template);
+        return holders != null ? new ArrayList<>(holders.keySet()) : List.of();
+    }
+
+    static int countHolders(SpeedModifierTemplate template) {
+        Map<SpeedComponent, int[]> holders = HOLDERS.get(template);
+        return holders != null ? holders.size() : 0;
+    }
+
+    static void clear() {
+        HOLDERS.clear();
+    }
+
+}
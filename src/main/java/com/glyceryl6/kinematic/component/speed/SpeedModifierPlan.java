@@ -0,0 +1,170 @@
+package com.glyceryl6.kinematic.component.speed;
+
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.MultiplicativeSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SetSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import net.minecraft.world.entity.Mob;
+
+import java.util.List;
+
+/**
+ * 编译后的速度修饰符执行计划
+ * <p>
+ * 在修饰符集合变化时由按优先级排序的修饰符列表构建。加法、乘法和设置修饰符被展开为
+ * 基本类型数组上的指令；最后一个设置修饰符之前的指令全部丢弃，之后不含条件修饰符时
+ * 整个计划在编译期折叠为常量。只有条件修饰符和自定义修饰符在运行时通过虚调用求值。
+ * <p>
+ * 浮点加法和乘法不满足结合律，将连续的运算合并为 {@code a*x + b} 会改变舍入结果，
+ * 因此这里只做逐位等价的折叠，保证与逐个调用 {@link SpeedModifier#apply} 的结果完全一致。
+ */
+public final class SpeedModifierPlan {
+
+    private static final byte OP_ADD = 0;
+    private static final byte OP_MULTIPLY = 1;
+    private static final byte OP_DYNAMIC = 2;
+
+    public static final SpeedModifierPlan IDENTITY = new SpeedModifierPlan(
+            new byte[0], new float[0], new SpeedModifier[0], false, 0.0f);
+
+    private final byte[] ops;
+    private final float[] operands;
+    private final SpeedModifier[] dynamicModifiers;
+    private final boolean startsFromConstant;
+    private final float startValue;
+
+    private SpeedModifierPlan(byte[] ops, float[] operands, SpeedModifier[] dynamicModifiers,
+                              boolean startsFromConstant, float startValue) {
+        this.ops = ops;
+        this.operands = operands;
+        this.dynamicModifiers = dynamicModifiers;
+        this.startsFromConstant = startsFromConstant;
+        this.startValue = startValue;
+    }
+
+    /**
+     * 由按优先级排序的修饰符列表编译执行计划，只包含当前激活的修饰符
+     */
+    public static SpeedModifierPlan compile(List<SpeedModifier> sortedModifiers) {
+        int size = sortedModifiers.size();
+        SpeedModifier[] active = new SpeedModifier[size];
+        int count = 0;
+        int lastSet = -1;
+        for (int i = 0; i < size; i++) {
+            SpeedModifier modifier = sortedModifiers.get(i);
+            if (modifier.isActive()) {
+                if (modifier.getClass() == SetSpeedModifier.class) {
+                    lastSet = count;
+                }
+                active[count++] = modifier;
+            }
+        }
+
+        if (count == 0) {
+            return IDENTITY;
+        }
+
+        // 设置修饰符会覆盖之前的所有结果，从最后一个设置修饰符开始即可
+        int start = lastSet >= 0 ? lastSet + 1 : 0;
+        boolean startsFromConstant = lastSet >= 0;
+        float startValue = startsFromConstant ? active[lastSet].getValue() : 0.0f;
+
+        // 设置修饰符之后的静态指令可以直接在编译期求值
+        if (startsFromConstant) {
+            while (start < count && opOf(active[start]) != OP_DYNAMIC) {
+                startValue = applyStatic(opOf(active[start]), active[start].getValue(), startValue);
+                start++;
+            }
+        }
+
+        int length = count - start;
+        byte[] ops = new byte[length];
+        float[] operands = new float[length];
+        SpeedModifier[] dynamicModifiers = new SpeedModifier[length];
+        for (int i = 0; i < length; i++) {
+            SpeedModifier modifier = active[start + i];
+            ops[i] = opOf(modifier);
+            operands[i] = modifier.getValue();
+            if (ops[i] == OP_DYNAMIC) {
+                dynamicModifiers[i] = modifier;
+            }
+        }
+
+        return new SpeedModifierPlan(ops, operands, dynamicModifiers, startsFromConstant, startValue);
+    }
+
+    /**
+     * 执行计划，返回未经范围限制的速度
+     */
+    public float evaluate(float baseSpeed, Mob mob) {
+        float speed = this.startsFromConstant ? this.startValue : baseSpeed;
+        byte[] ops = this.ops;
+        for (int i = 0; i < ops.length; i++) {
+            switch (ops[i]) {
+                case OP_ADD -> speed = speed + this.operands[i];
+                case OP_MULTIPLY -> speed = speed * this.operands[i];
+                default -> speed = this.dynamicModifiers[i].apply(baseSpeed, speed, mob);
+            }
+        }
+
+        return speed;
+    }
+
+    /**
+     * 计划是否与输入无关（结果为编译期常量）
+     */
+    public boolean isConstant() {
+        return this.startsFromConstant && this.ops.length == 0;
+    }
+
+    /**
+     * 计划是否需要在运行时调用修饰符（包含条件修饰符或自定义修饰符）
+     */
+    public boolean hasDynamicSegments() {
+        for (byte op : this.ops) {
+            if (op == OP_DYNAMIC) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 逐个调用修饰符的解释执行，用于校验编译结果
+     */
+    static float interpret(List<SpeedModifier> sortedModifiers, float baseSpeed, Mob mob) {
+        float speed = baseSpeed;
+        for (SpeedModifier modifier : sortedModifiers) {
+            if (modifier.isActive()) {
+                speed = modifier.apply(baseSpeed, speed, mob);
+            }
+        }
+
+        return speed;
+    }
+
+    /**
+     * 修饰符是否会被展开为静态指令，否则需要在运行时调用 {@link SpeedModifier#apply}
+     */
+    static boolean isStatic(SpeedModifier modifier) {
+        return modifier.getClass() == SetSpeedModifier.class || opOf(modifier) != OP_DYNAMIC;
+    }
+
+    private static byte opOf(SpeedModifier modifier) {
+        // 只展开未被继承重写的内置修饰符
+        Class<?> modifierClass = modifier.getClass();
+        if (modifierClass == AdditiveSpeedModifier.class) {
+            return OP_ADD;
+        } else if (modifierClass == MultiplicativeSpeedModifier.class) {
+            return OP_MULTIPLY;
+        }
+
+        return OP_DYNAMIC;
+    }
+
+    private static float applyStatic(byte op, float operand, float speed) {
+        return op == OP_ADD ? speed + operand : speed * operand;
+    }
+
+}
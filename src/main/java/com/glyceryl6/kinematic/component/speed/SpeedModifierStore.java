@@ -0,0 +1,321 @@
+package com.glyceryl6.kinematic.component.speed;
+
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 速度修饰符存储，按优先级降序保存在有序数组中，并维护按 ID 和按名称的索引
+ * <p>
+ * 只允许单线程（服务端线程）写入。插入位置通过二分查找确定，同优先级的修饰符保持插入顺序；
+ * 按 ID（开放寻址的 long 键表，不装箱）和名称的查找为 O(1)。设置系统属性 {@code kinematic.debug.threadConfinement=true}
+ * 后，每次写入都会校验调用线程是否为首次写入的线程。
+ */
+public final class SpeedModifierStore {
+
+    private static final boolean CHECK_THREAD_CONFINEMENT = Boolean.getBoolean("kinematic.debug.threadConfinement");
+    private static final SpeedModifier[] EMPTY = new SpeedModifier[0];
+
+    private SpeedModifier[] entries = EMPTY;
+    private int size;
+    private long version;
+    private long[] idKeys = new long[8];
+    private SpeedModifier[] idValues = new SpeedModifier[8];
+    private final Map<String, List<SpeedModifier>> byName = new HashMap<>();
+    private final List<SpeedModifier> view = new OrderedView();
+    private Thread ownerThread;
+
+    /**
+     * 插入修饰符，位于所有优先级不低于它的修饰符之后。同一实例已在存储中时不做任何修改并返回 false
+     */
+    public boolean add(SpeedModifier modifier) {
+        this.checkThread();
+        if (this.contains(modifier.getId())) {
+            return false;
+        }
+
+        if (this.size == this.entries.length) {
+            this.entries = Arrays.copyOf(this.entries, Math.max(4, this.size * 2));
+        }
+
+        int index = this.insertionPoint(modifier.getPriority());
+        System.arraycopy(this.entries, index, this.entries, index + 1, this.size - index);
+        this.entries[index] = modifier;
+        this.size++;
+        this.putId(modifier);
+        this.byName.computeIfAbsent(modifier.getName(), name -> new ArrayList<>(1)).add(modifier);
+        this.version++;
+        return true;
+    }
+
+    /**
+     * 按 ID 移除修饰符
+     */
+    public SpeedModifier remove(long modifierId) {
+        this.checkThread();
+        SpeedModifier modifier = this.removeId(modifierId);
+        if (modifier != null) {
+            this.removeAt(this.indexOf(modifier));
+            this.unindexName(modifier);
+            this.version++;
+        }
+
+        return modifier;
+    }
+
+    /**
+     * 移除所有同名修饰符，返回移除的数量
+     */
+    public int removeByName(String name, Consumer<SpeedModifier> onRemoved) {
+        this.checkThread();
+        List<SpeedModifier> named = this.byName.remove(name);
+        if (named == null) {
+            return 0;
+        }
+
+        for (SpeedModifier modifier : named) {
+            this.removeId(modifier.getId());
+            this.removeAt(this.indexOf(modifier));
+            onRemoved.accept(modifier);
+        }
+
+        this.version++;
+        return named.size();
+    }
+
+    /**
+     * 移除所有满足条件的修饰符，单次遍历压缩数组
+     */
+    public boolean removeIf(Predicate<SpeedModifier> filter, Consumer<SpeedModifier> onRemoved) {
+        this.checkThread();
+        int kept = 0;
+        for (int i = 0; i < this.size; i++) {
+            SpeedModifier modifier = this.entries[i];
+            if (filter.test(modifier)) {
+                this.removeId(modifier.getId());
+                this.unindexName(modifier);
+                onRemoved.accept(modifier);
+            } else {
+                this.entries[kept++] = modifier;
+            }
+        }
+
+        if (kept == this.size) {
+            return false;
+        }
+
+        Arrays.fill(this.entries, kept, this.size, null);
+        this.size = kept;
+        this.version++;
+        return true;
+    }
+
+    public void clear() {
+        this.checkThread();
+        Arrays.fill(this.entries, 0, this.size, null);
+        this.size = 0;
+        Arrays.fill(this.idKeys, 0L);
+        Arrays.fill(this.idValues, null);
+        this.byName.clear();
+        this.version++;
+    }
+
+    public SpeedModifier get(long modifierId) {
+        int slot = this.findSlot(modifierId);
+        return slot >= 0 ? this.idValues[slot] : null;
+    }
+
+    public boolean contains(long modifierId) {
+        return this.findSlot(modifierId) >= 0;
+    }
+
+    public boolean containsName(String name) {
+        return this.byName.containsKey(name);
+    }
+
+    /**
+     * 按优先级顺序获取第 index 个修饰符
+     */
+    public SpeedModifier get(int index) {
+        return this.entries[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * 结构版本号，每次增删都会递增
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * 按优先级排序的只读视图，不复制数组
+     */
+    public List<SpeedModifier> asList() {
+        return this.view;
+    }
+
+    private int insertionPoint(int priority) {
+        // 第一个优先级严格小于 priority 的位置
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.entries[mid].getPriority() >= priority) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    private int indexOf(SpeedModifier modifier) {
+        int priority = modifier.getPriority();
+        int low = 0;
+        int high = this.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.entries[mid].getPriority() > priority) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        for (int i = low; i < this.size && this.entries[i].getPriority() == priority; i++) {
+            if (this.entries[i] == modifier) {
+                return i;
+            }
+        }
+
+        throw new IllegalStateException("Modifier index out of sync: " + modifier.getName());
+    }
+
+    private void removeAt(int index) {
+        int moved = this.size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(this.entries, index + 1, this.entries, index, moved);
+        }
+
+        this.entries[--this.size] = null;
+    }
+
+    private void unindexName(SpeedModifier modifier) {
+        List<SpeedModifier> named = this.byName.get(modifier.getName());
+        if (named != null && named.remove(modifier) && named.isEmpty()) {
+            this.byName.remove(modifier.getName());
+        }
+    }
+
+    // ---- 按 ID 的开放寻址索引（线性探测，删除时后移） ----
+
+    private static int hash(long id, int mask) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int findSlot(long id) {
+        int mask = this.idKeys.length - 1;
+        for (int slot = hash(id, mask); this.idValues[slot] != null; slot = (slot + 1) & mask) {
+            if (this.idKeys[slot] == id) {
+                return slot;
+            }
+        }
+
+        return -1;
+    }
+
+    private void putId(SpeedModifier modifier) {
+        if ((this.size + 1) * 2 > this.idKeys.length) {
+            this.resizeIdIndex(this.idKeys.length * 2);
+        }
+
+        int mask = this.idKeys.length - 1;
+        int slot = hash(modifier.getId(), mask);
+        while (this.idValues[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        this.idKeys[slot] = modifier.getId();
+        this.idValues[slot] = modifier;
+    }
+
+    private SpeedModifier removeId(long id) {
+        int slot = this.findSlot(id);
+        if (slot < 0) {
+            return null;
+        }
+
+        SpeedModifier removed = this.idValues[slot];
+        int mask = this.idKeys.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; this.idValues[next] != null; next = (next + 1) & mask) {
+            int home = hash(this.idKeys[next], mask);
+            // 若 next 的理想位置不在 (hole, next] 区间内，则移入空洞
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                this.idKeys[hole] = this.idKeys[next];
+                this.idValues[hole] = this.idValues[next];
+                hole = next;
+            }
+        }
+        this.idKeys[hole] = 0L;
+        this.idValues[hole] = null;
+        return removed;
+    }
+
+    private void resizeIdIndex(int capacity) {
+        long[] oldKeys = this.idKeys;
+        SpeedModifier[] oldValues = this.idValues;
+        this.idKeys = new long[capacity];
+        this.idValues = new SpeedModifier[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int mask = capacity - 1;
+                int slot = hash(oldKeys[i], mask);
+                while (this.idValues[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                this.idKeys[slot] = oldKeys[i];
+                this.idValues[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void checkThread() {
+        if (CHECK_THREAD_CONFINEMENT) {
+            Thread current = Thread.currentThread();
+            if (this.ownerThread == null) {
+                this.ownerThread = current;
+            } else if (this.ownerThread != current) {
+                throw new IllegalStateException("SpeedModifierStore written from " + current.getName()
+                        + " but owned by " + this.ownerThread.getName());
+            }
+        }
+    }
+
+    private final class OrderedView extends AbstractList<SpeedModifier> implements RandomAccess {
+
+        @Override
+        public SpeedModifier get(int index) {
+            Objects.checkIndex(index, size);
+            return entries[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
@@ -0,0 +1,246 @@
+package com.glyceryl6.kinematic.component.speed;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按维度集中保存速度数据的结构数组存储
+ * <p>
+ * 开启后（系统属性 {@code kinematic.soaSpeedStorage=true} 或 {@link #setEnabled}，只影响之后初始化的组件），
+ * 服务端速度组件的基础速度、当前速度和执行计划保存在维度共享的连续数组中，组件只持有槽位下标。
+ * 修饰符变化只标记脏位，在本维度的容器更新之前由 {@link #recalculateDirty()} 按位图顺序统一重新计算；
+ * 组件更新时只检查原版基础值、刷新条件并同步结果。
+ * <p>
+ * 只允许在服务端线程访问，使用共享存储的组件不参与并行计算。
+ */
+public final class SpeedStorage {
+
+    private static final Map<ResourceKey<Level>, SpeedStorage> LEVEL_STORAGES = new ConcurrentHashMap<>();
+    private static final int INITIAL_CAPACITY = 64;
+    private static volatile boolean enabled = Boolean.getBoolean("kinematic.soaSpeedStorage");
+
+    private float[] base = new float[INITIAL_CAPACITY];
+    private float[] current = new float[INITIAL_CAPACITY];
+    private SpeedModifierPlan[] plans = new SpeedModifierPlan[INITIAL_CAPACITY];
+    private Mob[] mobs = new Mob[INITIAL_CAPACITY];
+    private SpeedComponent[] owners = new SpeedComponent[INITIAL_CAPACITY];
+    // 需要重新计算速度的槽位，以及修饰符集合变化、需要重新编译执行计划的槽位
+    private long[] dirty = new long[INITIAL_CAPACITY >> 6];
+    private long[] planStale = new long[INITIAL_CAPACITY >> 6];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int highWater;
+    private int size;
+    private long recalculationCount;
+
+    private SpeedStorage() {}
+
+    /**
+     * 新初始化的服务端速度组件是否使用共享存储
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        SpeedStorage.enabled = enabled;
+    }
+
+    static SpeedStorage forLevel(Level level) {
+        return LEVEL_STORAGES.computeIfAbsent(level.dimension(), key -> new SpeedStorage());
+    }
+
+    /**
+     * 获取维度的存储，维度没有使用共享存储的组件时返回 null
+     */
+    public static SpeedStorage get(ResourceKey<Level> dimension) {
+        return LEVEL_STORAGES.get(dimension);
+    }
+
+    public static void clearAll() {
+        LEVEL_STORAGES.clear();
+    }
+
+    /**
+     * 在容器更新（{@link EventPriority#NORMAL}）之前重新计算本维度所有变脏的速度
+     */
+    @SubscribeEvent(priority = EventPriority.HIGH)
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            SpeedStorage storage = LEVEL_STORAGES.get(serverLevel.dimension());
+            if (storage != null) {
+                storage.recalculateDirty();
+            }
+        }
+    }
+
+    /**
+     * 为组件分配槽位，初始速度为基础速度并标记为需要计算
+     */
+    int allocate(SpeedComponent owner, Mob mob, float baseSpeed) {
+        int slot;
+        if (this.freeCount > 0) {
+            slot = this.freeSlots[--this.freeCount];
+        } else {
+            if (this.highWater == this.base.length) {
+                this.grow();
+            }
+            slot = this.highWater++;
+        }
+
+        this.base[slot] = baseSpeed;
+        this.current[slot] = baseSpeed;
+        this.plans[slot] = SpeedModifierPlan.IDENTITY;
+        this.mobs[slot] = mob;
+        this.owners[slot] = owner;
+        this.planStale[slot >> 6] |= 1L << slot;
+        this.dirty[slot >> 6] |= 1L << slot;
+        this.size++;
+        return slot;
+    }
+
+    /**
+     * 释放槽位，槽位之后可以分配给其他组件
+     */
+    void release(int slot) {
+        long mask = ~(1L << slot);
+        this.dirty[slot >> 6] &= mask;
+        this.planStale[slot >> 6] &= mask;
+        this.plans[slot] = null;
+        this.mobs[slot] = null;
+        this.owners[slot] = null;
+        if (this.freeCount == this.freeSlots.length) {
+            this.freeSlots = Arrays.copyOf(this.freeSlots, this.freeSlots.length * 2);
+        }
+        this.freeSlots[this.freeCount++] = slot;
+        this.size--;
+    }
+
+    float getBase(int slot) {
+        return this.base[slot];
+    }
+
+    void setBase(int slot, float baseSpeed) {
+        this.base[slot] = baseSpeed;
+    }
+
+    float getCurrent(int slot) {
+        return this.current[slot];
+    }
+
+    void markDirty(int slot) {
+        this.dirty[slot >> 6] |= 1L << slot;
+    }
+
+    /**
+     * 修饰符集合或激活状态变化，下次计算前重新编译执行计划
+     */
+    void markPlanStale(int slot) {
+        this.planStale[slot >> 6] |= 1L << slot;
+        this.dirty[slot >> 6] |= 1L << slot;
+    }
+
+    boolean isDirty(int slot) {
+        return (this.dirty[slot >> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * 立即重新计算单个槽位（组件更新时发现基础值或条件变化）
+     */
+    void recalculate(int slot) {
+        long bit = 1L << slot;
+        int word = slot >> 6;
+        if ((this.planStale[word] & bit) != 0) {
+            this.planStale[word] &= ~bit;
+            this.plans[slot] = this.owners[slot].compileModifierPlan();
+        }
+
+        this.dirty[word] &= ~bit;
+        this.current[slot] = clamp(this.plans[slot].evaluate(this.base[slot], this.mobs[slot]));
+        this.recalculationCount++;
+    }
+
+    /**
+     * 重新计算所有变脏的槽位，返回计算的数量
+     */
+    public int recalculateDirty() {
+        long[] stale = this.planStale;
+        for (int word = 0; word < stale.length; word++) {
+            long bits = stale[word];
+            if (bits != 0) {
+                stale[word] = 0L;
+                do {
+                    int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    this.plans[slot] = this.owners[slot].compileModifierPlan();
+                    bits &= bits - 1;
+                } while (bits != 0);
+            }
+        }
+
+        // 只读写基本类型数组和不可变的执行计划
+        long[] dirty = this.dirty;
+        float[] base = this.base;
+        float[] current = this.current;
+        SpeedModifierPlan[] plans = this.plans;
+        Mob[] mobs = this.mobs;
+        int count = 0;
+        for (int word = 0; word < dirty.length; word++) {
+            long bits = dirty[word];
+            if (bits == 0) {
+                continue;
+            }
+
+            dirty[word] = 0L;
+            count += Long.bitCount(bits);
+            do {
+                int slot = (word << 6) + Long.numberOfTrailingZeros(bits);
+                current[slot] = clamp(plans[slot].evaluate(base[slot], mobs[slot]));
+                bits &= bits - 1;
+            } while (bits != 0);
+        }
+
+        this.recalculationCount += count;
+        return count;
+    }
+
+    /**
+     * 占用中的槽位数
+     */
+    public int size() {
+        return this.size;
+    }
+
+    public int capacity() {
+        return this.base.length;
+    }
+
+    public long getRecalculationCount() {
+        return this.recalculationCount;
+    }
+
+    private static float clamp(float speed) {
+        // 与组件自身计算相同的范围限制
+        return Math.min(Math.max(0, speed), 10.0f);
+    }
+
+    private void grow() {
+        int capacity = this.base.length * 2;
+        this.base = Arrays.copyOf(this.base, capacity);
+        this.current = Arrays.copyOf(this.current, capacity);
+        this.plans = Arrays.copyOf(this.plans, capacity);
+        this.mobs = Arrays.copyOf(this.mobs, capacity);
+        this.owners = Arrays.copyOf(this.owners, capacity);
+        this.dirty = Arrays.copyOf(this.dirty, capacity >> 6);
+        this.planStale = Arrays.copyOf(this.planStale, capacity >> 6);
+    }
+
+}
@@ -9,9 +9,13 @@ public class AdditiveSpeedModifier extends SpeedModifier {
         super(name, ModifierType.ADDITIVE, value, priority);
     }
 
+    AdditiveSpeedModifier(SpeedModifierTemplate template) {
+        super(template);
+    }
+
     @Override
     public float apply(float baseSpeed, float currentSpeed, Mob mob) {
-        return currentSpeed + this.value;
+        return currentSpeed + this.template.getValue();
     }
 
 }
\ No newline at end of file
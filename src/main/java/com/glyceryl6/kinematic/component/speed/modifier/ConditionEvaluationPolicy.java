@@ -0,0 +1,81 @@
+// ConditionEvaluationPolicy.java - 条件求值策略
+package com.glyceryl6.kinematic.component.speed.modifier;
+
+import java.util.Set;
+
+/**
+ * 条件修饰符的重新求值策略，两次求值之间使用缓存的结果
+ * <p>
+ * 可以组合：每 N 刻重新求值、收到指定类型的组件事件时重新求值、生物脚下方块位置变化时重新求值。
+ * {@link #ALWAYS} 表示每次重新计算速度时都求值。
+ */
+public final class ConditionEvaluationPolicy {
+
+    public static final ConditionEvaluationPolicy ALWAYS = new ConditionEvaluationPolicy(0, Set.of(), false, true);
+
+    private final int intervalTicks;
+    private final Set<String> invalidatingEvents;
+    private final boolean onBlockChange;
+    private final boolean always;
+
+    private ConditionEvaluationPolicy(int intervalTicks, Set<String> invalidatingEvents, boolean onBlockChange, boolean always) {
+        this.intervalTicks = intervalTicks;
+        this.invalidatingEvents = invalidatingEvents;
+        this.onBlockChange = onBlockChange;
+        this.always = always;
+    }
+
+    /**
+     * 每隔 intervalTicks 刻重新求值
+     */
+    public static ConditionEvaluationPolicy everyTicks(int intervalTicks) {
+        return new ConditionEvaluationPolicy(0, Set.of(), false, false).withInterval(intervalTicks);
+    }
+
+    /**
+     * 收到指定类型的事件时重新求值
+     */
+    public static ConditionEvaluationPolicy onEvents(String... eventTypes) {
+        return new ConditionEvaluationPolicy(0, Set.of(eventTypes), false, false);
+    }
+
+    /**
+     * 脚下方块位置变化时重新求值
+     */
+    public static ConditionEvaluationPolicy onBlockChange() {
+        return new ConditionEvaluationPolicy(0, Set.of(), true, false);
+    }
+
+    public ConditionEvaluationPolicy withInterval(int intervalTicks) {
+        if (intervalTicks <= 0) {
+            throw new IllegalArgumentException("Interval must be positive: " + intervalTicks);
+        }
+
+        return new ConditionEvaluationPolicy(intervalTicks, this.invalidatingEvents, this.onBlockChange, false);
+    }
+
+    public ConditionEvaluationPolicy withEvents(String... eventTypes) {
+        return new ConditionEvaluationPolicy(this.intervalTicks, Set.of(eventTypes), this.onBlockChange, false);
+    }
+
+    public ConditionEvaluationPolicy withBlockChange() {
+        return new ConditionEvaluationPolicy(this.intervalTicks, this.invalidatingEvents, true, false);
+    }
+
+    public int getIntervalTicks() {
+        return this.intervalTicks;
+    }
+
+    public Set<String> getInvalidatingEvents() {
+        return this.invalidatingEvents;
+    }
+
+    public boolean isOnBlockChange() {
+        return this.onBlockChange;
+    }
+
+    public boolean isAlways() {
+        return this.always;
+    }
+
+}
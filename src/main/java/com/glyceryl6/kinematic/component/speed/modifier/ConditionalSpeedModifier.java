@@ -1,6 +1,7 @@
 // ConditionalSpeedModifier.java - 条件修饰符
 package com.glyceryl6.kinematic.component.speed.modifier;
 
+import com.glyceryl6.kinematic.core.tick.TickClock;
 import net.minecraft.world.entity.Mob;
 import java.util.function.Predicate;
 
@@ -8,25 +9,106 @@ public class ConditionalSpeedModifier extends SpeedModifier {
 
     private final Predicate<Mob> condition;
     private final SpeedModifier baseModifier;
+    private final ConditionEvaluationPolicy policy;
+
+    // 缓存的条件结果
+    private boolean cachedResult;
+    private boolean stale = true;
+    private long nextEvaluationTick;
+    private long lastBlockPos;
 
     public ConditionalSpeedModifier(String name, SpeedModifier baseModifier, Predicate<Mob> condition) {
+        this(name, baseModifier, condition, ConditionEvaluationPolicy.ALWAYS);
+    }
+
+    public ConditionalSpeedModifier(String name, SpeedModifier baseModifier, Predicate<Mob> condition,
+                                    ConditionEvaluationPolicy policy) {
         super(name, ModifierType.COMPOUND, baseModifier.getValue(), baseModifier.getPriority());
         this.baseModifier = baseModifier;
         this.condition = condition;
+        this.policy = policy;
     }
 
     @Override
     public float apply(float baseSpeed, float currentSpeed, Mob mob) {
-        if (this.condition.test(mob)) {
+        boolean matches;
+        if (this.policy.isAlways()) {
+            matches = this.condition.test(mob);
+        } else {
+            if (this.stale) {
+                this.evaluate(mob);
+            }
+            matches = this.cachedResult;
+        }
+
+        if (matches) {
             return this.baseModifier.apply(baseSpeed, currentSpeed, mob);
         }
 
         return currentSpeed;
     }
 
+    /**
+     * 按策略刷新缓存的条件结果，返回结果是否发生变化
+     */
+    public boolean refresh(Mob mob, long currentTick) {
+        if (this.policy.isAlways()) {
+            return false;
+        }
+
+        boolean due = this.stale;
+        if (!due && this.policy.getIntervalTicks() > 0 && currentTick >= this.nextEvaluationTick) {
+            due = true;
+        }
+        if (!due && this.policy.isOnBlockChange() && mob.getOnPos().asLong() != this.lastBlockPos) {
+            due = true;
+        }
+
+        if (!due) {
+            return false;
+        }
+
+        boolean previous = this.cachedResult;
+        boolean first = this.stale;
+        this.evaluate(mob);
+        return first || previous != this.cachedResult;
+    }
+
+    /**
+     * 收到事件时使缓存失效，返回是否受该事件影响
+     */
+    public boolean invalidate(String eventType) {
+        if (this.policy.getInvalidatingEvents().contains(eventType)) {
+            this.stale = true;
+            return true;
+        }
+
+        return false;
+    }
+
+    private void evaluate(Mob mob) {
+        this.cachedResult = this.condition.test(mob);
+        this.stale = false;
+        if (this.policy.getIntervalTicks() > 0) {
+            this.nextEvaluationTick = TickClock.currentTick() + this.policy.getIntervalTicks();
+        }
+        if (this.policy.isOnBlockChange()) {
+            this.lastBlockPos = mob.getOnPos().asLong();
+        }
+    }
+
+    public ConditionEvaluationPolicy getPolicy() {
+        return this.policy;
+    }
+
     @Override
     public boolean isActive() {
         return super.isActive() && this.baseModifier.isActive();
     }
 
-}
\ No newline at end of file
+    @Override
+    public int getRevision() {
+        return super.getRevision() + this.baseModifier.getRevision();
+    }
+
+}
@@ -9,9 +9,13 @@ public class MultiplicativeSpeedModifier extends SpeedModifier {
         super(name, ModifierType.MULTIPLICATIVE, value, priority);
     }
 
+    MultiplicativeSpeedModifier(SpeedModifierTemplate template) {
+        super(template);
+    }
+
     @Override
     public float apply(float baseSpeed, float currentSpeed, Mob mob) {
-        return currentSpeed * this.value;
+        return currentSpeed * this.template.getValue();
     }
 
 }
\ No newline at end of file
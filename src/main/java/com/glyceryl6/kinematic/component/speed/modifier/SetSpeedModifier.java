@@ -9,9 +9,13 @@ public class SetSpeedModifier extends SpeedModifier {
         super(name, ModifierType.SET, value, priority);
     }
 
+    SetSpeedModifier(SpeedModifierTemplate template) {
+        super(template);
+    }
+
     @Override
     public float apply(float baseSpeed, float currentSpeed, Mob mob) {
-        return this.value;
+        return this.template.getValue();
     }
 
 }
\ No newline at end of file
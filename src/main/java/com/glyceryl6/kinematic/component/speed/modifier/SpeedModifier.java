@@ -1,58 +1,125 @@
 package com.glyceryl6.kinematic.component.speed.modifier;
 
+import com.glyceryl6.kinematic.core.tick.TickClock;
 import net.minecraft.world.entity.Mob;
 
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * 速度修饰符基类，支持不同类型的速度调整
+ * <p>
+ * 名称、类型、数值和优先级保存在（可共享的）{@link SpeedModifierTemplate} 中，
+ * 实例只保存自身的 ID、过期时间和激活状态。
  */
 public abstract class SpeedModifier {
-    
-    protected final UUID modifierId;
-    protected final String name;
-    protected final ModifierType type;
-    protected final int priority;
-    protected final float value;
-    protected long expirationTime = -1; // -1 表示永久
+
+    // UUID 形式的 ID 高位，低位为顺序分配的 long ID
+    private static final long MODIFIER_ID_MSB = 0x6b696e656d617469L;
+    private static final AtomicLong NEXT_ID = new AtomicLong(1);
+
+    protected final long id;
+    protected final SpeedModifierTemplate template;
+    protected long expirationTick = -1; // 过期的服务端刻，-1 表示永久
     protected boolean active = true;
+    protected int revision = 0; // 状态修订号，激活状态或持续时间变化时递增
+    private Consumer<SpeedModifier> durationListener; // 所在组件的过期任务重新调度回调
 
     public SpeedModifier(String name, ModifierType type, float value, int priority) {
-        this.modifierId = UUID.randomUUID();
-        this.name = name;
-        this.type = type;
-        this.value = value;
-        this.priority = priority;
+        this(SpeedModifierTemplate.unshared(type, name, value, priority));
+    }
+
+    protected SpeedModifier(SpeedModifierTemplate template) {
+        this.id = NEXT_ID.getAndIncrement();
+        this.template = template;
     }
 
     public abstract float apply(float baseSpeed, float currentSpeed, Mob mob);
 
     public boolean isExpired() {
-        return this.expirationTime > 0 && System.currentTimeMillis() > this.expirationTime;
+        return this.expirationTick >= 0 && TickClock.currentTick() >= this.expirationTick;
     }
 
     public void setDuration(long durationMs) {
-        this.expirationTime = System.currentTimeMillis() + durationMs;
+        this.setDurationTicks(TickClock.millisToTicks(durationMs));
     }
 
+    public void setDurationTicks(long durationTicks) {
+        this.expirationTick = TickClock.currentTick() + durationTicks;
+        this.revision++;
+        if (this.durationListener != null) {
+            this.durationListener.accept(this);
+        }
+    }
+
+    /**
+     * 设置持续时间变化的回调，由持有修饰符的组件在加入和移除时设置，用于重新调度过期任务
+     */
+    public void setDurationListener(Consumer<SpeedModifier> durationListener) {
+        this.durationListener = durationListener;
+    }
+
+    /**
+     * 获取持续时间变化的回调
+     */
+    public Consumer<SpeedModifier> getDurationListener() {
+        return this.durationListener;
+    }
+
+    /**
+     * 获取过期的服务端刻，-1 表示永久
+     */
+    public long getExpirationTick() {
+        return this.expirationTick;
+    }
+
+    /**
+     * 获取顺序分配的实例 ID
+     */
+    public long getId() {
+        return this.id;
+    }
+
+    /**
+     * 获取 UUID 形式的实例 ID（每次调用创建新的 UUID 对象），内部路径应使用 {@link #getId()}
+     */
     public UUID getModifierId() { 
-        return this.modifierId; 
+        return modifierIdOf(this.id);
+    }
+
+    /**
+     * 将实例 ID 转换为 UUID 形式，只在公开接口返回时调用
+     */
+    public static UUID modifierIdOf(long id) {
+        return new UUID(MODIFIER_ID_MSB, id);
+    }
+
+    /**
+     * 将 UUID 形式的 ID 转换为实例 ID，不是修饰符 ID 时返回 -1
+     */
+    public static long idOf(UUID modifierId) {
+        return modifierId.getMostSignificantBits() == MODIFIER_ID_MSB ? modifierId.getLeastSignificantBits() : -1L;
+    }
+
+    public SpeedModifierTemplate getTemplate() {
+        return this.template;
     }
     
     public String getName() { 
-        return this.name; 
+        return this.template.getName();
     }
     
     public ModifierType getType() { 
-        return this.type; 
+        return this.template.getType();
     }
     
     public int getPriority() { 
-        return this.priority; 
+        return this.template.getPriority();
     }
     
     public float getValue() { 
-        return this.value; 
+        return this.template.getValue();
     }
     
     public boolean isActive() { 
@@ -60,7 +127,74 @@ public abstract class SpeedModifier {
     }
     
     public void setActive(boolean active) { 
-        this.active = active; 
+        if (this.active != active) {
+            this.active = active;
+            this.revision++;
+        }
+    }
+
+    /**
+     * 获取状态修订号，用于缓存失效判断
+     */
+    public int getRevision() {
+        return this.revision;
+    }
+
+    // 以下访问器对应已移除的 protected 字段，供继承本类的外部修饰符迁移使用
+
+    /**
+     * @deprecated 字段已移除，使用 {@link #getModifierId()} 或 {@link #getId()}
+     */
+    @Deprecated
+    protected UUID modifierId() {
+        return this.getModifierId();
+    }
+
+    /**
+     * @deprecated 字段已移除，使用 {@link #getName()}
+     */
+    @Deprecated
+    protected String name() {
+        return this.template.getName();
+    }
+
+    /**
+     * @deprecated 字段已移除，使用 {@link #getType()}
+     */
+    @Deprecated
+    protected ModifierType type() {
+        return this.template.getType();
+    }
+
+    /**
+     * @deprecated 字段已移除，使用 {@link #getValue()}
+     */
+    @Deprecated
+    protected float value() {
+        return this.template.getValue();
+    }
+
+    /**
+     * @deprecated 字段已移除，使用 {@link #getPriority()}
+     */
+    @Deprecated
+    protected int priority() {
+        return this.template.getPriority();
+    }
+
+    /**
+     * 过期的墙钟时间（毫秒），由剩余刻数换算，-1 表示永久
+     *
+     * @deprecated 过期时间改为按服务端刻计时，使用 {@link #getExpirationTick()}
+     */
+    @Deprecated
+    protected long expirationTime() {
+        if (this.expirationTick < 0) {
+            return -1L;
+        }
+
+        long remainingTicks = this.expirationTick - TickClock.currentTick();
+        return System.currentTimeMillis() + remainingTicks * TickClock.MILLIS_PER_TICK;
     }
     
-}
\ No newline at end of file
+}
@@ -0,0 +1,117 @@
+// SpeedModifierTemplate.java - 修饰符模板
+package com.glyceryl6.kinematic.component.speed.modifier;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 不可变的速度修饰符模板，保存名称、类型、数值和优先级
+ * <p>
+ * 通过 {@link #intern} 获取的模板在全服共享，同一效果施加到大量生物时，
+ * 每个生物只持有实例相关的状态（ID、过期时间、激活状态）。
+ */
+public final class SpeedModifierTemplate {
+
+    private static final ConcurrentMap<SpeedModifierTemplate, SpeedModifierTemplate> INTERNED = new ConcurrentHashMap<>();
+    private static final AtomicLong NEXT_TEMPLATE_ID = new AtomicLong(1);
+
+    private final long templateId;
+    private final String name;
+    private final ModifierType type;
+    private final float value;
+    private final int priority;
+    private final boolean interned;
+
+    private SpeedModifierTemplate(long templateId, String name, ModifierType type, float value, int priority, boolean interned) {
+        this.templateId = templateId;
+        this.name = Objects.requireNonNull(name, "name");
+        this.type = Objects.requireNonNull(type, "type");
+        this.value = value;
+        this.priority = priority;
+        this.interned = interned;
+    }
+
+    /**
+     * 获取共享模板，相同参数返回同一实例
+     */
+    public static SpeedModifierTemplate intern(ModifierType type, String name, float value, int priority) {
+        SpeedModifierTemplate probe = new SpeedModifierTemplate(0, name, type, value, priority, false);
+        SpeedModifierTemplate existing = INTERNED.get(probe);
+        if (existing != null) {
+            return existing;
+        }
+
+        SpeedModifierTemplate template = new SpeedModifierTemplate(
+                NEXT_TEMPLATE_ID.getAndIncrement(), name, type, value, priority, true);
+        existing = INTERNED.putIfAbsent(template, template);
+        return existing != null ? existing : template;
+    }
+
+    /**
+     * 创建不共享的模板，用于直接构造的修饰符
+     */
+    static SpeedModifierTemplate unshared(ModifierType type, String name, float value, int priority) {
+        return new SpeedModifierTemplate(NEXT_TEMPLATE_ID.getAndIncrement(), name, type, value, priority, false);
+    }
+
+    /**
+     * 按模板类型创建修饰符实例
+     */
+    public SpeedModifier create() {
+        return switch (this.type) {
+            case ADDITIVE -> new AdditiveSpeedModifier(this);
+            case MULTIPLICATIVE -> new MultiplicativeSpeedModifier(this);
+            case SET -> new SetSpeedModifier(this);
+            default -> throw new UnsupportedOperationException("Cannot instantiate template of type " + this.type);
+        };
+    }
+
+    public long getTemplateId() {
+        return this.templateId;
+    }
+
+    public String getName() {
+        return this.name;
+    }
+
+    public ModifierType getType() {
+        return this.type;
+    }
+
+    public float getValue() {
+        return this.value;
+    }
+
+    public int getPriority() {
+        return this.priority;
+    }
+
+    public boolean isInterned() {
+        return this.interned;
+    }
+
+    public static int getInternedCount() {
+        return INTERNED.size();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof SpeedModifierTemplate other)) return false;
+        return this.type == other.type && this.priority == other.priority
+                && Float.floatToIntBits(this.value) == Float.floatToIntBits(other.value)
+                && this.name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = this.name.hashCode();
+        result = 31 * result + this.type.hashCode();
+        result = 31 * result + Float.floatToIntBits(this.value);
+        result = 31 * result + this.priority;
+        return result;
+    }
+
+}
@@ -2,6 +2,8 @@
 package com.glyceryl6.kinematic.core.architecture;
 
 import com.glyceryl6.kinematic.core.dependency.DependencyInjector;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
+import com.glyceryl6.kinematic.core.tick.TimingWheel;
 
 public abstract class AbstractComponent implements Component {
 
@@ -30,8 +32,29 @@ public abstract class AbstractComponent implements Component {
     @Override
     public void shutdown() {
         this.onShutdown();
+        if (this.isRecyclable()) {
+            // 回收池中的组件不再引用原来的生物
+            this.context = null;
+        }
     }
 
     protected void onShutdown() {}
 
+    /**
+     * 唤醒休眠的组件，下次更新容器时执行
+     */
+    protected void wake() {
+        ComponentContext context = this.context;
+        if (context != null) {
+            context.wake(this);
+        }
+    }
+
+    /**
+     * 在指定的服务端刻唤醒组件
+     */
+    protected TimingWheel.Timeout wakeAt(long deadlineTick) {
+        return TickScheduler.schedule(deadlineTick, this::wake);
+    }
+
 }
\ No newline at end of file
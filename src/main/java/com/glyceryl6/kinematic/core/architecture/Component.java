@@ -2,6 +2,8 @@ package com.glyceryl6.kinematic.core.architecture;
 
 import com.glyceryl6.kinematic.core.event.ComponentEvent;
 
+import java.util.Set;
+
 /**
  * 组件基础接口，定义所有组件的生命周期和基本行为
  */
@@ -47,6 +49,41 @@ public interface Component {
      */
     default void onEvent(ComponentEvent event) {}
 
+    /**
+     * 声明需要通过 {@link #onEvent} 接收的事件类（包括子类），默认不接收任何事件
+     */
+    default Set<Class<? extends ComponentEvent>> getSubscribedEvents() {
+        return Set.of();
+    }
+
+    /**
+     * 允许的最大更新间隔（刻），距离分级降低更新频率时不会超过该值，默认不限制
+     */
+    default int getMaxTickInterval() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * 在每次更新后调用，返回 true 时组件进入休眠，不再更新，直到收到监听的事件、增删组件或调用
+     * {@link ComponentContext#wake} 时被唤醒。只做判断，不应产生副作用，默认从不休眠
+     */
+    default boolean isIdle() {
+        return false;
+    }
+
+    /**
+     * 组件进入休眠时调用一次，需要按时间推进的组件在这里安排定时唤醒。
+     * 同一轮更新中随后又被唤醒的组件也会收到该调用
+     */
+    default void onSleep() {}
+
+    /**
+     * 关闭后能否重新初始化并用于同一实体类型的其他生物，可回收的组件在重新初始化时必须清除上一个生物留下的状态
+     */
+    default boolean isRecyclable() {
+        return false;
+    }
+
     /**
      * 获取组件优先级（影响执行顺序）
      */
@@ -6,20 +6,21 @@ import java.util.UUID;
 
 /**
  * 组件执行上下文，提供运行时环境信息
+ * <p>
+ * 同一容器内的组件共享一个上下文，上下文 ID 在第一次获取时才生成。
  */
 public class ComponentContext {
 
     private final ComponentContainer container;
     private final Mob mobEntity;
     private final EventBus eventBus;
-    private final UUID contextId;
+    private UUID contextId;
     private final long createTime;
 
     public ComponentContext(ComponentContainer container, Mob mobEntity, EventBus eventBus) {
         this.container = container;
         this.mobEntity = mobEntity;
         this.eventBus = eventBus;
-        this.contextId = UUID.randomUUID();
         this.createTime = System.currentTimeMillis();
     }
 
@@ -31,6 +32,13 @@ public class ComponentContext {
         return container.getComponent(type);
     }
 
+    /**
+     * 唤醒容器中休眠的组件
+     */
+    public void wake(Component component) {
+        container.wakeComponent(component);
+    }
+
     public Mob getMobEntity() {
         return mobEntity;
     }
@@ -39,7 +47,11 @@ public class ComponentContext {
         return eventBus;
     }
 
-    public UUID getContextId() {
+    public synchronized UUID getContextId() {
+        if (contextId == null) {
+            contextId = UUID.randomUUID();
+        }
+
         return contextId;
     }
 
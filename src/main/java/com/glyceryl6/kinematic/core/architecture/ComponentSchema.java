@@ -0,0 +1,177 @@
+// ComponentSchema.java - 组件状态模式
+package com.glyceryl6.kinematic.core.architecture;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 组件状态的模式，定义字段的顺序和类型
+ * <p>
+ * 字段在构建时分配下标，状态按下标保存基本类型值，编码时只写字段类型和值，不写字段名。
+ * 模式演进时只能在末尾追加字段，旧数据中缺少的字段取默认值，新数据中多出的字段在解码时跳过。
+ */
+public final class ComponentSchema {
+
+    private final String id;
+    private final int version;
+    private final List<Field> fields;
+
+    private ComponentSchema(String id, int version, List<Field> fields) {
+        this.id = id;
+        this.version = version;
+        this.fields = fields;
+    }
+
+    public static Builder builder(String id, int version) {
+        return new Builder(id, version);
+    }
+
+    public String getId() {
+        return this.id;
+    }
+
+    /**
+     * 模式版本，随编码一起保存，组件可以按解码出的版本迁移数据
+     */
+    public int getVersion() {
+        return this.version;
+    }
+
+    public int getFieldCount() {
+        return this.fields.size();
+    }
+
+    public Field getField(int index) {
+        return this.fields.get(index);
+    }
+
+    public List<Field> getFields() {
+        return this.fields;
+    }
+
+    /**
+     * 字段类型，序号写入编码，只能在末尾追加
+     */
+    public enum Kind {
+        BOOLEAN,
+        INT,
+        LONG,
+        FLOAT,
+        STRING,
+        LIST
+    }
+
+    /**
+     * 模式中的字段，作为读写状态的句柄
+     */
+    public static final class Field {
+
+        private final Builder owner;
+        private final int index;
+        private final String name;
+        private final Kind kind;
+        private final ComponentSchema elementSchema;
+
+        private Field(Builder owner, int index, String name, Kind kind, ComponentSchema elementSchema) {
+            this.owner = owner;
+            this.index = index;
+            this.name = name;
+            this.kind = kind;
+            this.elementSchema = elementSchema;
+        }
+
+        public int getIndex() {
+            return this.index;
+        }
+
+        public String getName() {
+            return this.name;
+        }
+
+        public Kind getKind() {
+            return this.kind;
+        }
+
+        /**
+         * 列表元素的模式，其他类型的字段返回 null
+         */
+        public ComponentSchema getElementSchema() {
+            return this.elementSchema;
+        }
+
+        void check(ComponentSchema schema, Kind expected) {
+            if (this.owner.built != schema || this.kind != expected) {
+                throw new IllegalArgumentException("Field " + this.name + " (" + this.kind + ") is not a "
+                        + expected + " field of schema " + schema.getId());
+            }
+        }
+
+        @Override
+        public String toString() {
+            return this.name + ":" + this.kind;
+        }
+
+    }
+
+    public static final class Builder {
+
+        private final String id;
+        private final int version;
+        private final List<Field> fields = new ArrayList<>();
+        private ComponentSchema built;
+
+        private Builder(String id, int version) {
+            this.id = Objects.requireNonNull(id, "id");
+            this.version = version;
+        }
+
+        public Field booleanField(String name) {
+            return this.add(name, Kind.BOOLEAN, null);
+        }
+
+        public Field intField(String name) {
+            return this.add(name, Kind.INT, null);
+        }
+
+        public Field longField(String name) {
+            return this.add(name, Kind.LONG, null);
+        }
+
+        public Field floatField(String name) {
+            return this.add(name, Kind.FLOAT, null);
+        }
+
+        public Field stringField(String name) {
+            return this.add(name, Kind.STRING, null);
+        }
+
+        /**
+         * 按元素模式保存的状态列表
+         */
+        public Field listField(String name, ComponentSchema elementSchema) {
+            return this.add(name, Kind.LIST, Objects.requireNonNull(elementSchema, "elementSchema"));
+        }
+
+        public ComponentSchema build() {
+            if (this.built == null) {
+                this.built = new ComponentSchema(this.id, this.version, Collections.unmodifiableList(new ArrayList<>(this.fields)));
+            }
+
+            return this.built;
+        }
+
+        private Field add(String name, Kind kind, ComponentSchema elementSchema) {
+            if (this.built != null) {
+                throw new IllegalStateException("Schema " + this.id + " is already built");
+            }
+
+            Field field = new Field(this, this.fields.size(), name, kind, elementSchema);
+            this.fields.add(field);
+            return field;
+        }
+
+    }
+
+}
@@ -1,24 +1,183 @@
 // ComponentState.java - 组件状态
 package com.glyceryl6.kinematic.core.architecture;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 组件状态
+ * <p>
+ * 按 {@link ComponentSchema} 创建的状态把基本类型值保存在 long 数组中（不装箱），字符串和列表保存在对象数组中，
+ * 通过模式字段读写，可以由 {@link ComponentStateCodec} 编码保存。无模式的状态只支持按键读写，仅用于热替换。
+ */
 public class ComponentState {
 
-    private final Map<String, Object> stateData = new ConcurrentHashMap<>();
+    private static final long[] NO_VALUES = new long[0];
+    private static final Object[] NO_OBJECTS = new Object[0];
+
+    private final ComponentSchema schema;
+    private final long[] values;
+    private final Object[] objects;
+    private int version;
+    private Map<String, Object> stateData;
+
+    /**
+     * 创建无模式的状态
+     */
+    public ComponentState() {
+        this.schema = null;
+        this.values = NO_VALUES;
+        this.objects = NO_OBJECTS;
+    }
+
+    public ComponentState(ComponentSchema schema) {
+        this.schema = schema;
+        this.values = new long[schema.getFieldCount()];
+        this.objects = new Object[schema.getFieldCount()];
+        this.version = schema.getVersion();
+    }
+
+    /**
+     * 状态的模式，无模式的状态返回 null
+     */
+    public ComponentSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * 数据写入时的模式版本（新建的状态为当前版本）
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    void setVersion(int version) {
+        this.version = version;
+    }
+
+    public boolean getBoolean(ComponentSchema.Field field) {
+        field.check(schema, ComponentSchema.Kind.BOOLEAN);
+        return values[field.getIndex()] != 0;
+    }
+
+    public void setBoolean(ComponentSchema.Field field, boolean value) {
+        field.check(schema, ComponentSchema.Kind.BOOLEAN);
+        values[field.getIndex()] = value ? 1 : 0;
+    }
+
+    public int getInt(ComponentSchema.Field field) {
+        field.check(schema, ComponentSchema.Kind.INT);
+        return (int) values[field.getIndex()];
+    }
+
+    public void setInt(ComponentSchema.Field field, int value) {
+        field.check(schema, ComponentSchema.Kind.INT);
+        values[field.getIndex()] = value;
+    }
+
+    public long getLong(ComponentSchema.Field field) {
+        field.check(schema, ComponentSchema.Kind.LONG);
+        return values[field.getIndex()];
+    }
+
+    public void setLong(ComponentSchema.Field field, long value) {
+        field.check(schema, ComponentSchema.Kind.LONG);
+        values[field.getIndex()] = value;
+    }
+
+    public float getFloat(ComponentSchema.Field field) {
+        field.check(schema, ComponentSchema.Kind.FLOAT);
+        return Float.intBitsToFloat((int) values[field.getIndex()]);
+    }
+
+    public void setFloat(ComponentSchema.Field field, float value) {
+        field.check(schema, ComponentSchema.Kind.FLOAT);
+        values[field.getIndex()] = Float.floatToRawIntBits(value);
+    }
+
+    /**
+     * 字符串字段，未设置时返回 null
+     */
+    public String getString(ComponentSchema.Field field) {
+        field.check(schema, ComponentSchema.Kind.STRING);
+        return (String) objects[field.getIndex()];
+    }
+
+    public void setString(ComponentSchema.Field field, String value) {
+        field.check(schema, ComponentSchema.Kind.STRING);
+        objects[field.getIndex()] = value;
+    }
+
+    /**
+     * 列表字段的元素（只读）
+     */
+    @SuppressWarnings("unchecked")
+    public List<ComponentState> getList(ComponentSchema.Field field) {
+        field.check(schema, ComponentSchema.Kind.LIST);
+        List<ComponentState> list = (List<ComponentState>) objects[field.getIndex()];
+        return list != null ? Collections.unmodifiableList(list) : List.of();
+    }
+
+    /**
+     * 在列表字段末尾追加一个按元素模式创建的状态并返回
+     */
+    @SuppressWarnings("unchecked")
+    public ComponentState addElement(ComponentSchema.Field field) {
+        field.check(schema, ComponentSchema.Kind.LIST);
+        List<ComponentState> list = (List<ComponentState>) objects[field.getIndex()];
+        if (list == null) {
+            list = new ArrayList<>();
+            objects[field.getIndex()] = list;
+        }
+
+        ComponentState element = new ComponentState(field.getElementSchema());
+        list.add(element);
+        return element;
+    }
+
+    // 编码器按下标直接访问
+
+    long rawValue(int index) {
+        return values[index];
+    }
+
+    void setRawValue(int index, long value) {
+        values[index] = value;
+    }
+
+    Object rawObject(int index) {
+        return objects[index];
+    }
+
+    @SuppressWarnings("unchecked")
+    void addDecodedElement(int index, ComponentState element) {
+        List<ComponentState> list = (List<ComponentState>) objects[index];
+        if (list == null) {
+            list = new ArrayList<>();
+            objects[index] = list;
+        }
+        list.add(element);
+    }
+
+    // 无模式状态
 
     public void put(String key, Object value) {
+        if (stateData == null) {
+            stateData = new HashMap<>();
+        }
         stateData.put(key, value);
     }
 
     public <T> T get(String key, Class<T> type) {
-        Object value = stateData.get(key);
+        Object value = stateData != null ? stateData.get(key) : null;
         return type.isInstance(value) ? type.cast(value) : null;
     }
 
     public Map<String, Object> getAll() {
-        return new ConcurrentHashMap<>(stateData);
+        return stateData != null ? new HashMap<>(stateData) : new HashMap<>();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,197 @@
+// ComponentStateCodec.java - 组件状态二进制编码
+package com.glyceryl6.kinematic.core.architecture;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * 按模式编码组件状态的紧凑二进制格式
+ * <p>
+ * 格式：模式版本、字段数（变长整数），之后每个字段为一个类型字节加值。整数使用 ZigZag 变长编码，
+ * 浮点数写入原始位，字符串使用修改版 UTF-8，列表为元素数加逐个编码的元素。
+ */
+public final class ComponentStateCodec {
+
+    private ComponentStateCodec() {}
+
+    public static byte[] encode(ComponentState state) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            encode(state, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+
+    public static ComponentState decode(ComponentSchema schema, byte[] data) {
+        try {
+            return decode(schema, new DataInputStream(new ByteArrayInputStream(data)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void encode(ComponentState state, DataOutput out) throws IOException {
+        ComponentSchema schema = state.getSchema();
+        if (schema == null) {
+            throw new IllegalArgumentException("Cannot encode a state without schema");
+        }
+
+        writeVarInt(out, state.getVersion());
+        writeVarInt(out, schema.getFieldCount());
+        for (int i = 0; i < schema.getFieldCount(); i++) {
+            ComponentSchema.Kind kind = schema.getField(i).getKind();
+            out.writeByte(kind.ordinal());
+            switch (kind) {
+                case BOOLEAN -> out.writeBoolean(state.rawValue(i) != 0);
+                case INT, LONG -> writeVarLong(out, state.rawValue(i));
+                case FLOAT -> out.writeInt((int) state.rawValue(i));
+                case STRING -> {
+                    String value = (String) state.rawObject(i);
+                    out.writeBoolean(value != null);
+                    if (value != null) {
+                        out.writeUTF(value);
+                    }
+                }
+                case LIST -> {
+                    List<ComponentState> elements = state.getList(schema.getField(i));
+                    writeVarInt(out, elements.size());
+                    for (ComponentState element : elements) {
+                        encode(element, out);
+                    }
+                }
+            }
+        }
+    }
+
+    public static ComponentState decode(ComponentSchema schema, DataInput in) throws IOException {
+        ComponentState state = new ComponentState(schema);
+        state.setVersion(readVarInt(in));
+        int fieldCount = readVarInt(in);
+        for (int i = 0; i < fieldCount; i++) {
+            ComponentSchema.Kind kind = readKind(in);
+            // 当前模式没有或类型不同的字段直接跳过
+            ComponentSchema.Field field = i < schema.getFieldCount() && schema.getField(i).getKind() == kind
+                    ? schema.getField(i) : null;
+            switch (kind) {
+                case BOOLEAN -> {
+                    boolean value = in.readBoolean();
+                    if (field != null) state.setRawValue(i, value ? 1 : 0);
+                }
+                case INT, LONG -> {
+                    long value = readVarLong(in);
+                    if (field != null) state.setRawValue(i, value);
+                }
+                case FLOAT -> {
+                    int bits = in.readInt();
+                    if (field != null) state.setRawValue(i, bits);
+                }
+                case STRING -> {
+                    String value = in.readBoolean() ? in.readUTF() : null;
+                    if (field != null) state.setString(field, value);
+                }
+                case LIST -> {
+                    int size = readVarInt(in);
+                    for (int j = 0; j < size; j++) {
+                        if (field != null) {
+                            state.addDecodedElement(i, decode(field.getElementSchema(), in));
+                        } else {
+                            skip(in);
+                        }
+                    }
+                }
+            }
+        }
+
+        return state;
+    }
+
+    /**
+     * 跳过一个编码的状态
+     */
+    private static void skip(DataInput in) throws IOException {
+        readVarInt(in);
+        int fieldCount = readVarInt(in);
+        for (int i = 0; i < fieldCount; i++) {
+            switch (readKind(in)) {
+                case BOOLEAN -> in.readBoolean();
+                case INT, LONG -> readVarLong(in);
+                case FLOAT -> in.readInt();
+                case STRING -> {
+                    if (in.readBoolean()) {
+                        in.readUTF();
+                    }
+                }
+                case LIST -> {
+                    for (int j = 0, size = readVarInt(in); j < size; j++) {
+                        skip(in);
+                    }
+                }
+            }
+        }
+    }
+
+    private static ComponentSchema.Kind readKind(DataInput in) throws IOException {
+        int ordinal = in.readUnsignedByte();
+        ComponentSchema.Kind[] kinds = ComponentSchema.Kind.values();
+        if (ordinal >= kinds.length) {
+            throw new IOException("Unknown field kind " + ordinal);
+        }
+
+        return kinds[ordinal];
+    }
+
+    public static void writeVarInt(DataOutput out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    public static int readVarInt(DataInput in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("VarInt too long");
+    }
+
+    private static void writeVarLong(DataOutput out, long value) throws IOException {
+        // ZigZag 编码，小的负数同样只占少量字节
+        long zigZag = (value << 1) ^ (value >> 63);
+        while ((zigZag & ~0x7FL) != 0) {
+            out.writeByte((int) (zigZag & 0x7F) | 0x80);
+            zigZag >>>= 7;
+        }
+        out.writeByte((int) zigZag);
+    }
+
+    private static long readVarLong(DataInput in) throws IOException {
+        long zigZag = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            int b = in.readUnsignedByte();
+            zigZag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigZag >>> 1) ^ -(zigZag & 1);
+            }
+        }
+
+        throw new IOException("VarLong too long");
+    }
+
+}
@@ -4,6 +4,9 @@ package com.glyceryl6.kinematic.core.architecture;
 import com.glyceryl6.kinematic.core.event.ComponentEvent;
 import com.glyceryl6.kinematic.core.event.EventListener;
 
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 public interface EventBus {
 
     void registerComponent(Component component);
@@ -12,10 +15,53 @@ public interface EventBus {
 
     void post(ComponentEvent event);
 
+    /**
+     * 只在存在监听器时才创建并投递事件，没有监听器时不产生分配
+     */
+    default <E extends ComponentEvent> void post(String eventType, Class<E> eventClass, Supplier<? extends E> factory) {
+        if (this.hasListeners(eventType, eventClass)) {
+            this.post(factory.get());
+        }
+    }
+
+    /**
+     * 放入队列，在之后的服务端刻中处理，可以从任意线程调用
+     */
+    void postDeferred(ComponentEvent event);
+
     void subscribe(String eventType, EventListener listener);
 
     void unsubscribe(String eventType, EventListener listener);
 
     int getListenerCount(String eventType);
 
+    /**
+     * 按事件类订阅，同时接收该类的子类事件
+     */
+    void subscribe(Class<? extends ComponentEvent> eventClass, EventListener listener);
+
+    void unsubscribe(Class<? extends ComponentEvent> eventClass, EventListener listener);
+
+    /**
+     * 投递该类事件时会收到通知的监听器数量（包括按父类订阅的监听器和组件）
+     */
+    int getListenerCount(Class<? extends ComponentEvent> eventClass);
+
+    /**
+     * 投递该类型字符串和事件类的事件时是否有任何监听器（包括组件）会收到通知
+     */
+    boolean hasListeners(String eventType, Class<? extends ComponentEvent> eventClass);
+
+    /**
+     * 将事件类型声明为可合并：同一刻内键相同的事件只投递最后一个，在 {@link #flushCoalesced()} 时统一投递
+     */
+    void setCoalescing(String eventType, Function<? super ComponentEvent, ?> keyFunction);
+
+    boolean isCoalescing(String eventType);
+
+    /**
+     * 投递暂存的可合并事件，容器在更新组件之前调用
+     */
+    void flushCoalesced();
+
 }
\ No newline at end of file
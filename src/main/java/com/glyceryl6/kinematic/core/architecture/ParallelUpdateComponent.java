@@ -0,0 +1,28 @@
+package com.glyceryl6.kinematic.core.architecture;
+
+/**
+ * 支持两阶段并行更新的组件接口
+ * <p>
+ * 并行模式下先在工作线程上调用 {@link #computeUpdate}，只允许读写组件自身的状态；
+ * 随后在服务端线程上调用 {@link #applyUpdate}，执行属性写入、事件发布等副作用。
+ * 两个阶段依次执行的结果必须与一次 {@link #update} 完全一致。
+ * 并行阶段失败时计算结果会被丢弃并改为调用 {@link #update}，因此计算阶段之后再执行一次完整更新也必须得到相同的结果。
+ */
+public interface ParallelUpdateComponent extends Component {
+
+    /**
+     * 当前状态下计算阶段是否可以离开服务端线程执行（例如不需要读取世界状态）
+     */
+    boolean isParallelSafe();
+
+    /**
+     * 计算阶段，在工作线程上执行
+     */
+    void computeUpdate(float deltaTime);
+
+    /**
+     * 应用阶段，在服务端线程上执行
+     */
+    void applyUpdate(float deltaTime);
+
+}
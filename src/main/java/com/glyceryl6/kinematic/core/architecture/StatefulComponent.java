@@ -1,12 +1,43 @@
 package com.glyceryl6.kinematic.core.architecture;
 
 /**
- * 支持状态保存和恢复的组件接口，用于热替换
+ * 支持状态保存和恢复的组件接口，用于热替换和持久化
+ * <p>
+ * 声明了 {@link #getStateSchema()} 的组件会随实体保存，只有状态变脏的容器才会重新编码。
+ * {@link #restoreState} 在组件初始化之后调用。
  */
 public interface StatefulComponent extends Component {
 
     ComponentState saveState();
 
+    /**
+     * 热替换时交给新组件的状态，默认与 {@link #saveState()} 相同
+     * <p>
+     * 可以通过 {@link ComponentState#put} 额外携带不能持久化的运行时对象，由新组件在 {@link #restoreState} 中取回。
+     */
+    default ComponentState saveStateForSwap() {
+        return saveState();
+    }
+
     void restoreState(ComponentState state);
 
+    /**
+     * 持久化使用的状态模式，返回 null 时组件状态只用于热替换，不随实体保存
+     */
+    default ComponentSchema getStateSchema() {
+        return null;
+    }
+
+    /**
+     * 状态自上次 {@link #markStateSaved()} 以来是否发生变化
+     */
+    default boolean isStateDirty() {
+        return true;
+    }
+
+    /**
+     * 状态已编码保存
+     */
+    default void markStateSaved() {}
+
 }
\ No newline at end of file
@@ -28,6 +28,11 @@ public interface ComponentContainer {
 
     int getComponentCount();
 
+    /**
+     * 唤醒休眠的组件
+     */
+    void wakeComponent(Component component);
+
     void shutdown();
 
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+// ComponentPersistence.java - 组件持久化注册与延迟恢复
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.core.architecture.Component;
+import com.glyceryl6.kinematic.core.architecture.StatefulComponent;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.entity.EntityJoinLevelEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 可持久化组件的注册表，以及加载后的延迟恢复
+ * <p>
+ * 只有注册过的有状态组件会随实体保存，恢复时按组件 ID 用注册的工厂重建。
+ * 带有保存数据的生物加入维度时不立即创建容器，而是放入维度的待恢复列表，
+ * 等到所在位置开始处理实体时才创建容器并解码，只加载而不处理实体的区块中的生物不产生解码开销。
+ */
+public final class ComponentPersistence {
+
+    private static final Map<String, Entry<?>> ENTRIES = new HashMap<>();
+    private static final Map<ResourceKey<Level>, List<Mob>> PENDING = new HashMap<>();
+
+    private ComponentPersistence() {}
+
+    /**
+     * 注册可持久化的组件，组件 ID 与 {@link Component#getComponentId()} 一致
+     */
+    public static synchronized <T extends StatefulComponent> void register(String componentId, Class<T> componentClass, Supplier<? extends T> factory) {
+        if (ENTRIES.putIfAbsent(componentId, new Entry<>(componentClass, factory)) != null) {
+            throw new IllegalArgumentException("Duplicate persistent component: " + componentId);
+        }
+    }
+
+    static synchronized boolean isRegistered(StatefulComponent component) {
+        Entry<?> entry = ENTRIES.get(component.getComponentId());
+        return entry != null && entry.componentClass == component.getClass();
+    }
+
+    /**
+     * 获取容器中已注册 ID 对应的组件，不存在时复用回收的组件或新建，ID 未注册时返回 null
+     */
+    static StatefulComponent createOrReuse(MobComponentContainer container, String componentId) {
+        Entry<?> entry;
+        synchronized (ComponentPersistence.class) {
+            entry = ENTRIES.get(componentId);
+        }
+
+        return entry != null ? entry.getOrAdd(container) : null;
+    }
+
+    @SubscribeEvent
+    public static void onEntityJoinLevel(EntityJoinLevelEvent event) {
+        if (event.getEntity() instanceof Mob mob && event.getLevel() instanceof ServerLevel serverLevel
+                && mob.hasData(MobContainers.PERSISTED_STATE.get())
+                && mob.getData(MobContainers.PERSISTED_STATE.get()).isPendingRestore()) {
+            PENDING.computeIfAbsent(serverLevel.dimension(), key -> new ArrayList<>()).add(mob);
+        }
+    }
+
+    /**
+     * 在容器更新之前恢复已进入实体处理范围的生物
+     */
+    @SubscribeEvent(priority = EventPriority.HIGH)
+    public static void onLevelTick(LevelTickEvent.Post event) {
+        if (!(event.getLevel() instanceof ServerLevel serverLevel)) {
+            return;
+        }
+
+        List<Mob> pending = PENDING.get(serverLevel.dimension());
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+
+        for (int i = pending.size() - 1; i >= 0; i--) {
+            Mob mob = pending.get(i);
+            boolean done = mob.isRemoved() || MobContainers.get(mob) != null;
+            if (!done && serverLevel.isPositionEntityTicking(mob.blockPosition())) {
+                // 创建容器时绑定保存的数据并恢复组件
+                MobContainers.getOrCreate(mob);
+                done = true;
+            }
+
+            if (done) {
+                int last = pending.size() - 1;
+                pending.set(i, pending.get(last));
+                pending.remove(last);
+            }
+        }
+    }
+
+    /**
+     * 等待恢复的生物数
+     */
+    public static int getPendingCount() {
+        int count = 0;
+        for (List<Mob> pending : PENDING.values()) {
+            count += pending.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * 服务器停止时清空待恢复列表
+     */
+    public static void clear() {
+        PENDING.clear();
+    }
+
+    private record Entry<T extends StatefulComponent>(Class<T> componentClass, Supplier<? extends T> factory) {
+
+        T getOrAdd(MobComponentContainer container) {
+            return container.getOrAddComponent(this.componentClass, this.factory);
+        }
+
+    }
+
+}
@@ -0,0 +1,512 @@
+// ComponentRollout.java - 全服分批热替换
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.core.architecture.Component;
+import com.glyceryl6.kinematic.core.architecture.ComponentState;
+import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.architecture.StatefulComponent;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 在所有维度的容器上分批热替换同一类型的组件
+ * <p>
+ * 开始时对带有该类型组件（可再按实体类型过滤）的容器做快照，之后每个服务端刻在预算内迁移一部分，
+ * 旧组件的状态通过 {@link StatefulComponent#saveStateForSwap()} 只保存一次并恢复到新组件中，
+ * 其中包括不能持久化的运行时状态（例如速度组件的条件修饰符和自定义修饰符）。
+ * 最先迁移的金丝雀批次保留旧组件，新组件在替换时或观察期内的更新中抛出异常时全部回滚并停止。观察期只检查实际更新过的金丝雀，休眠或被距离分级降频的金丝雀会被唤醒并提前更新，
+ * 观察期结束时仍有未更新的金丝雀则继续等待，最多等待观察期的 {@value #MAX_CANARY_WAIT_FACTOR} 倍，
+ * 没有任何金丝雀更新过时回滚。观察期通过后才迁移其余容器，之后单个容器替换失败只回滚该容器。
+ * 开始之后新建的容器不受影响。只允许在服务端线程访问。
+ */
+public final class ComponentRollout {
+
+    private static final List<ComponentRollout> ACTIVE = new ArrayList<>();
+    private static final int MAX_CANARY_WAIT_FACTOR = 4;
+
+    private final ComponentType componentType;
+    private final Supplier<? extends Component> factory;
+    private final Supplier<? extends Component> rollbackFactory;
+    private final long budgetNanos;
+    private final int canarySize;
+    private final int canaryTicks;
+    private final Consumer<ComponentRollout> progressListener;
+
+    private final MobComponentContainer[] targets;
+    private final Mob[] mobs;
+    private int position;
+    // 金丝雀批次保留的旧组件和状态，观察期通过后释放
+    private final List<Migration> canary = new ArrayList<>();
+    private int observedTicks;
+
+    private Stage stage = Stage.CANARY;
+    private int migrated;
+    private int skipped;
+    private int failed;
+    private String failureReason;
+
+    private ComponentRollout(Builder builder, List<MobComponentContainer> targets) {
+        this.componentType = builder.componentType;
+        this.factory = builder.factory;
+        this.rollbackFactory = builder.rollbackFactory;
+        this.budgetNanos = builder.budgetMicros * 1000L;
+        this.canarySize = builder.canarySize;
+        this.canaryTicks = builder.canaryTicks;
+        this.progressListener = builder.progressListener;
+        this.targets = targets.toArray(new MobComponentContainer[0]);
+        this.mobs = new Mob[this.targets.length];
+        for (int i = 0; i < this.targets.length; i++) {
+            this.mobs[i] = this.targets[i].getMobEntity();
+        }
+    }
+
+    public static Builder builder(ComponentType componentType, Supplier<? extends Component> factory) {
+        return new Builder(componentType, factory);
+    }
+
+    /**
+     * 推进所有进行中的替换，每个服务端刻调用一次
+     */
+    public static void tickAll() {
+        if (ACTIVE.isEmpty()) {
+            return;
+        }
+
+        for (ComponentRollout rollout : ACTIVE.toArray(new ComponentRollout[0])) {
+            rollout.tick();
+            if (rollout.isFinished()) {
+                ACTIVE.remove(rollout);
+            }
+        }
+    }
+
+    /**
+     * 进行中的替换
+     */
+    public static List<ComponentRollout> getActive() {
+        return List.copyOf(ACTIVE);
+    }
+
+    /**
+     * 服务器停止时丢弃进行中的替换，已迁移的组件随容器一起关闭
+     */
+    public static void clearAll() {
+        ACTIVE.clear();
+    }
+
+    private void tick() {
+        switch (this.stage) {
+            case CANARY -> this.migrateCanary();
+            case OBSERVING -> this.observeCanary();
+            case ROLLING -> this.migrateBatch();
+            default -> {
+                return;
+            }
+        }
+
+        if (this.progressListener != null) {
+            this.progressListener.accept(this);
+        }
+    }
+
+    /**
+     * 一次迁移整个金丝雀批次（不受预算限制），任意一个失败时全部回滚
+     */
+    private void migrateCanary() {
+        while (this.position < this.targets.length && this.canary.size() < this.canarySize) {
+            int index = this.position++;
+            Migration migration = this.prepare(index);
+            if (migration == null) {
+                this.skipped++;
+                continue;
+            }
+
+            this.canary.add(migration);
+            try {
+                migration.apply();
+                this.migrated++;
+            } catch (RuntimeException e) {
+                this.failed++;
+                this.abort("Canary swap failed on " + migration.mob, e);
+                return;
+            }
+        }
+
+        this.stage = this.canaryTicks > 0 ? Stage.OBSERVING : Stage.ROLLING;
+        this.finishIfDone();
+    }
+
+    /**
+     * 观察期内检查金丝雀容器中的新组件在更新中是否抛出过异常，只统计实际更新过的金丝雀
+     */
+    private void observeCanary() {
+        Migration firstFailure = null;
+        int live = 0;
+        int updated = 0;
+        for (Migration migration : this.canary) {
+            MobComponentContainer container = migration.container;
+            // 已关闭、已回收或新组件已被替换的容器没有可观察的对象
+            if (!container.isActive() || container.getMobEntity() != migration.mob
+                    || container.getComponent(this.componentType) != migration.replacement) {
+                continue;
+            }
+
+            live++;
+            if (!container.hasUpdated(migration.replacement)) {
+                // 休眠或降频的金丝雀在下一刻强制更新
+                container.promote();
+                container.wakeComponent(migration.replacement);
+                continue;
+            }
+
+            updated++;
+            if (container.getLastFailedComponent() == migration.replacement) {
+                this.failed++;
+                if (firstFailure == null) {
+                    firstFailure = migration;
+                }
+            }
+        }
+
+        if (firstFailure != null) {
+            this.abort("Canary component failed to update on " + firstFailure.mob, null);
+            return;
+        }
+
+        ++this.observedTicks;
+        boolean waitExpired = this.observedTicks >= this.canaryTicks * MAX_CANARY_WAIT_FACTOR;
+        if (this.observedTicks < this.canaryTicks || (updated < live && !waitExpired)) {
+            return;
+        }
+
+        if (updated == 0) {
+            this.abort("No canary container updated within " + this.observedTicks + " ticks", null);
+            return;
+        }
+
+        if (updated < live) {
+            System.err.println("Hot swap of " + this.componentType + ": " + (live - updated) + " of " + live
+                    + " canary containers never updated, continuing with " + updated + " observed");
+        }
+        this.canary.clear();
+        this.stage = Stage.ROLLING;
+        this.finishIfDone();
+    }
+
+    /**
+     * 在预算内迁移其余容器，单个失败只回滚该容器
+     */
+    private void migrateBatch() {
+        long deadline = System.nanoTime() + this.budgetNanos;
+        int done = 0;
+        while (this.position < this.targets.length && (done == 0 || System.nanoTime() - deadline < 0)) {
+            int index = this.position++;
+            Migration migration = this.prepare(index);
+            if (migration == null) {
+                this.skipped++;
+                continue;
+            }
+
+            done++;
+            try {
+                migration.apply();
+                this.migrated++;
+            } catch (RuntimeException e) {
+                this.failed++;
+                System.err.println("Hot swap of " + this.componentType + " failed on " + migration.mob + ", rolling back");
+                e.printStackTrace();
+                this.rollback(migration);
+            }
+        }
+
+        this.finishIfDone();
+    }
+
+    private void finishIfDone() {
+        if (this.stage == Stage.ROLLING && this.position >= this.targets.length) {
+            this.stage = Stage.COMPLETED;
+            System.out.println("Hot swap of " + this.componentType + " completed: " + this.migrated + " migrated, "
+                    + this.skipped + " skipped, " + this.failed + " failed");
+        }
+    }
+
+    /**
+     * 目标仍然有效时保存旧组件状态，否则返回 null
+     */
+    private Migration prepare(int index) {
+        MobComponentContainer container = this.targets[index];
+        Mob mob = this.mobs[index];
+        this.targets[index] = null;
+        this.mobs[index] = null;
+        // 容器可能已关闭，或已被回收并绑定到其他生物
+        if (!container.isActive() || container.getMobEntity() != mob || mob.isRemoved()) {
+            return null;
+        }
+
+        Component original = container.getComponent(this.componentType);
+        if (original == null) {
+            return null;
+        }
+
+        ComponentState state = original instanceof StatefulComponent stateful ? stateful.saveStateForSwap() : null;
+        return new Migration(container, mob, original, state);
+    }
+
+    /**
+     * 回滚金丝雀批次并停止
+     */
+    private void abort(String reason, RuntimeException cause) {
+        this.failureReason = reason;
+        System.err.println("Hot swap of " + this.componentType + " rolled back: " + reason);
+        if (cause != null) {
+            cause.printStackTrace();
+        }
+
+        for (int i = this.canary.size() - 1; i >= 0; i--) {
+            this.rollback(this.canary.get(i));
+        }
+        // 金丝雀批次全部换回旧实现
+        this.migrated = 0;
+        this.canary.clear();
+        this.stage = Stage.ROLLED_BACK;
+    }
+
+    /**
+     * 换回旧实现：可回收的旧组件直接重新初始化，否则使用回滚工厂；新组件的状态可用时优先恢复
+     */
+    private void rollback(Migration migration) {
+        MobComponentContainer container = migration.container;
+        if (!container.isActive() || container.getMobEntity() != migration.mob) {
+            return;
+        }
+
+        // 替换在交换之前失败（工厂抛出异常或类型不符），旧组件仍在工作
+        if (container.getComponent(this.componentType) == migration.original) {
+            return;
+        }
+
+        ComponentState state = migration.state;
+        if (migration.replacement instanceof StatefulComponent stateful && container.getComponent(this.componentType) == migration.replacement) {
+            try {
+                state = stateful.saveStateForSwap();
+            } catch (RuntimeException e) {
+                // 使用替换前保存的状态
+            }
+        }
+
+        Component restored = migration.original.isRecyclable() ? migration.original
+                : this.rollbackFactory != null ? this.rollbackFactory.get() : null;
+        try {
+            if (restored != null) {
+                restored.setEnabled(true);
+                container.swapComponent(restored, state);
+            } else {
+                container.removeComponent(this.componentType);
+                System.err.println("No rollback for non-recyclable " + migration.original.getComponentId()
+                        + " on " + migration.mob + ", component removed");
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to roll back " + this.componentType + " on " + migration.mob);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * 停止迁移，已迁移的容器保留新组件
+     */
+    public void cancel() {
+        if (!this.isFinished()) {
+            this.canary.clear();
+            this.stage = Stage.CANCELLED;
+            ACTIVE.remove(this);
+        }
+    }
+
+    public Stage getStage() {
+        return this.stage;
+    }
+
+    public boolean isFinished() {
+        return this.stage == Stage.COMPLETED || this.stage == Stage.ROLLED_BACK || this.stage == Stage.CANCELLED;
+    }
+
+    public ComponentType getComponentType() {
+        return this.componentType;
+    }
+
+    /**
+     * 开始时快照的目标容器数
+     */
+    public int getTotal() {
+        return this.targets.length;
+    }
+
+    public int getMigrated() {
+        return this.migrated;
+    }
+
+    /**
+     * 已关闭、已移除或不再带有该类型组件而跳过的容器数
+     */
+    public int getSkipped() {
+        return this.skipped;
+    }
+
+    public int getFailed() {
+        return this.failed;
+    }
+
+    /**
+     * 已处理的目标比例（0~1）
+     */
+    public float getProgress() {
+        return this.targets.length > 0 ? (float) this.position / this.targets.length : 1.0f;
+    }
+
+    /**
+     * 回滚原因，没有回滚时返回 null
+     */
+    public String getFailureReason() {
+        return this.failureReason;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ComponentRollout[%s, %s, %d/%d migrated, %d skipped, %d failed]",
+                this.componentType, this.stage, this.migrated, this.targets.length, this.skipped, this.failed);
+    }
+
+    /**
+     * 替换的阶段
+     */
+    public enum Stage {
+        /**
+         * 等待迁移金丝雀批次
+         */
+        CANARY,
+        /**
+         * 金丝雀批次已迁移，观察其更新
+         */
+        OBSERVING,
+        /**
+         * 按预算迁移其余容器
+         */
+        ROLLING,
+        COMPLETED,
+        ROLLED_BACK,
+        CANCELLED
+    }
+
+    private final class Migration {
+
+        private final MobComponentContainer container;
+        private final Mob mob;
+        private final Component original;
+        private final ComponentState state;
+        private Component replacement;
+
+        private Migration(MobComponentContainer container, Mob mob, Component original, ComponentState state) {
+            this.container = container;
+            this.mob = mob;
+            this.original = original;
+            this.state = state;
+        }
+
+        private void apply() {
+            this.replacement = factory.get();
+            if (this.replacement.getComponentType() != componentType) {
+                throw new IllegalStateException("Factory created " + this.replacement.getComponentType()
+                        + " instead of " + componentType);
+            }
+
+            this.container.swapComponent(this.replacement, this.state);
+        }
+
+    }
+
+    public static final class Builder {
+
+        private final ComponentType componentType;
+        private final Supplier<? extends Component> factory;
+        private EntityType<?> entityType;
+        private Supplier<? extends Component> rollbackFactory;
+        private long budgetMicros = 1000L;
+        private int canarySize = 16;
+        private int canaryTicks = 20;
+        private Consumer<ComponentRollout> progressListener;
+
+        private Builder(ComponentType componentType, Supplier<? extends Component> factory) {
+            this.componentType = Objects.requireNonNull(componentType, "componentType");
+            this.factory = Objects.requireNonNull(factory, "factory");
+        }
+
+        /**
+         * 只替换指定实体类型的生物
+         */
+        public Builder entityType(EntityType<?> entityType) {
+            this.entityType = entityType;
+            return this;
+        }
+
+        /**
+         * 旧组件不可回收（关闭后不能重新初始化）时，回滚使用的旧实现工厂
+         */
+        public Builder rollbackFactory(Supplier<? extends Component> rollbackFactory) {
+            this.rollbackFactory = rollbackFactory;
+            return this;
+        }
+
+        /**
+         * 每个服务端刻迁移的时间预算（微秒），每刻至少迁移一个容器
+         */
+        public Builder budgetMicros(long budgetMicros) {
+            this.budgetMicros = Math.max(0L, budgetMicros);
+            return this;
+        }
+
+        /**
+         * 金丝雀批次的容器数和观察的刻数，观察刻数为 0 时只检查替换本身
+         */
+        public Builder canary(int size, int ticks) {
+            this.canarySize = Math.max(1, size);
+            this.canaryTicks = Math.max(0, ticks);
+            return this;
+        }
+
+        /**
+         * 每个推进的刻之后调用，用于报告进度
+         */
+        public Builder progressListener(Consumer<ComponentRollout> progressListener) {
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * 快照目标容器并开始替换，第一批在下一个服务端刻迁移
+         */
+        public ComponentRollout start() {
+            List<MobComponentContainer> targets = new ArrayList<>();
+            for (ContainerRegistry registry : ContainerRegistry.all()) {
+                registry.forEach(container -> {
+                    if (container.hasComponent(this.componentType)
+                            && (this.entityType == null || container.getMobEntity().getType() == this.entityType)) {
+                        targets.add(container);
+                    }
+                });
+            }
+
+            ComponentRollout rollout = new ComponentRollout(this, targets);
+            ACTIVE.add(rollout);
+            System.out.println("Hot swap of " + this.componentType + " started on " + targets.size() + " containers");
+            return rollout;
+        }
+
+    }
+
+}
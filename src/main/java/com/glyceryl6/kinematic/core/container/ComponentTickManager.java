@@ -0,0 +1,332 @@
+// ComponentTickManager.java - 组件容器刻驱动
+package com.glyceryl6.kinematic.core.container;
+
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.neoforge.event.entity.EntityLeaveLevelEvent;
+import net.neoforged.neoforge.event.entity.living.LivingDeathEvent;
+import net.neoforged.neoforge.event.tick.LevelTickEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在维度刻结束时更新该维度内的所有组件容器
+ * <p>
+ * 每个服务端刻共享一个全局时间预算，各维度依次消耗。预算耗尽时剩余的容器留到下一刻，
+ * 从上次停下的位置继续轮转，保证每个容器最终都会被更新；每个维度每刻至少更新一个容器。
+ * deltaTime 为容器两次更新之间的实际秒数，休眠后唤醒时按一刻计算。实体离开维度时自动关闭其容器。
+ * <p>
+ * 开启并行模式后容器按批次更新：声明为并行安全的组件在工作线程上完成计算阶段，
+ * 应用阶段和其余组件仍在服务端线程上按顺序执行，每批结束后检查预算。
+ * <p>
+ * 远离玩家的容器按 {@link LevelOfDetail} 降低更新频率。
+ */
+public final class ComponentTickManager {
+
+    private static final ComponentTickManager INSTANCE = new ComponentTickManager();
+    private static final float DEFAULT_DELTA_SECONDS = 0.05f;
+    private static final int PARALLEL_BATCH_SIZE = 1024;
+
+    private final Map<ResourceKey<Level>, LevelCursor> cursors = new ConcurrentHashMap<>();
+    private volatile long tickBudgetNanos = 10_000_000L;
+    private volatile boolean parallelUpdates = Boolean.getBoolean("kinematic.parallelUpdates");
+    private final ParallelContainerUpdater parallelUpdater = new ParallelContainerUpdater();
+    private final List<MobComponentContainer> parallelBatch = new ArrayList<>();
+    private final LevelOfDetail levelOfDetail = new LevelOfDetail();
+    private long remainingBudgetNanos;
+    private long lastTickUpdated;
+    private long lastTickDeferred;
+    private long lastTickSkipped;
+    private long lastTickAsleep;
+    private long totalUpdated;
+
+    private ComponentTickManager() {}
+
+    public static ComponentTickManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 设置每个服务端刻所有维度共享的容器更新预算
+     */
+    public void setTickBudgetMicros(long budgetMicros) {
+        if (budgetMicros <= 0) {
+            throw new IllegalArgumentException("Tick budget must be positive: " + budgetMicros);
+        }
+
+        this.tickBudgetNanos = budgetMicros * 1000L;
+    }
+
+    public long getTickBudgetMicros() {
+        return this.tickBudgetNanos / 1000L;
+    }
+
+    /**
+     * 开启或关闭两阶段并行更新
+     */
+    public void setParallelUpdates(boolean parallelUpdates) {
+        this.parallelUpdates = parallelUpdates;
+    }
+
+    public boolean isParallelUpdates() {
+        return this.parallelUpdates;
+    }
+
+    @SubscribeEvent
+    public void onServerTick(ServerTickEvent.Pre event) {
+        this.beginServerTick();
+    }
+
+    /**
+     * 开始新的服务端刻，重置本刻的预算和统计
+     */
+    public void beginServerTick() {
+        this.remainingBudgetNanos = this.tickBudgetNanos;
+        this.lastTickUpdated = 0;
+        this.lastTickDeferred = 0;
+        this.lastTickSkipped = 0;
+        this.lastTickAsleep = 0;
+    }
+
+    @SubscribeEvent
+    public void onLevelTick(LevelTickEvent.Post event) {
+        if (event.getLevel() instanceof ServerLevel serverLevel) {
+            this.tickLevel(serverLevel);
+        }
+    }
+
+    @SubscribeEvent
+    public void onEntityLeaveLevel(EntityLeaveLevelEvent event) {
+        if (event.getEntity() instanceof Mob mob) {
+            MobContainers.release(mob);
+            // 直接创建、没有作为附加数据的容器
+            if (event.getLevel() instanceof ServerLevel serverLevel) {
+                MobComponentContainer container = ContainerRegistry.forLevel(serverLevel).get(mob.getId());
+                if (container != null && container.getMobEntity() == mob) {
+                    container.shutdown();
+                }
+            }
+        }
+    }
+
+    /**
+     * 死亡的生物在移除前不再需要组件，提前回收容器
+     */
+    @SubscribeEvent(priority = EventPriority.LOWEST)
+    public void onLivingDeath(LivingDeathEvent event) {
+        if (event.getEntity() instanceof Mob mob && mob.level() instanceof ServerLevel) {
+            MobContainers.release(mob);
+        }
+    }
+
+    /**
+     * 在预算内轮转更新维度内的容器
+     */
+    public void tickLevel(ServerLevel level) {
+        ContainerRegistry registry = ContainerRegistry.forLevel(level);
+        LevelCursor cursor = this.cursors.computeIfAbsent(level.dimension(), dimension -> new LevelCursor());
+        int count = registry.size();
+        if (count == 0) {
+            return;
+        }
+
+        this.levelOfDetail.beginLevel(level);
+        long start = System.nanoTime();
+        long deadline = start + this.remainingBudgetNanos;
+        int position = cursor.position < count ? cursor.position : 0;
+        int visited = this.parallelUpdates
+                ? this.tickLevelParallel(registry, cursor, position, count, deadline)
+                : this.tickLevelSerial(registry, cursor, position, count, deadline);
+        this.remainingBudgetNanos = Math.max(0L, this.remainingBudgetNanos - (System.nanoTime() - start));
+        this.lastTickDeferred += Math.max(0, registry.size() - visited);
+    }
+
+    /**
+     * 逐个串行更新，返回访问过的容器数并更新轮转位置
+     */
+    private int tickLevelSerial(ContainerRegistry registry, LevelCursor cursor, int position, int count, long deadline) {
+        int visited = 0;
+        int updated = 0;
+        int asleep = 0;
+        while (visited < count) {
+            // 更新期间可能有容器注销，每次都检查边界
+            int size = registry.size();
+            if (size == 0) {
+                break;
+            }
+            if (position >= size) {
+                position = 0;
+            }
+
+            MobComponentContainer container = registry.getAt(position);
+            long now = System.nanoTime();
+            if (updated > 0 && now - deadline >= 0) {
+                break;
+            }
+
+            if (container.getMobEntity().isRemoved()) {
+                MobContainers.release(container);
+                count--;
+                continue;
+            }
+
+            position++;
+            visited++;
+            if (container.isAsleep()) {
+                // 所有组件都在休眠，等待事件或定时唤醒
+                asleep++;
+            } else if (this.levelOfDetail.shouldUpdate(container)) {
+                container.updateComponents(this.consumeDeltaTime(container, now));
+                updated++;
+            }
+        }
+
+        cursor.position = position;
+        this.recordTick(visited, updated, asleep);
+        return visited;
+    }
+
+    /**
+     * 按批次两阶段并行更新，返回访问过的容器数并更新轮转位置
+     */
+    private int tickLevelParallel(ContainerRegistry registry, LevelCursor cursor, int position, int count, long deadline) {
+        List<MobComponentContainer> batch = this.parallelBatch;
+        int visited = 0;
+        int updated = 0;
+        int asleep = 0;
+        try {
+            while (visited < count) {
+                batch.clear();
+                long now = System.nanoTime();
+                while (batch.size() < PARALLEL_BATCH_SIZE && visited < count) {
+                    int size = registry.size();
+                    if (size == 0) {
+                        break;
+                    }
+                    if (position >= size) {
+                        position = 0;
+                    }
+
+                    MobComponentContainer container = registry.getAt(position);
+                    if (container.getMobEntity().isRemoved()) {
+                        MobContainers.release(container);
+                        count--;
+                        continue;
+                    }
+
+                    position++;
+                    visited++;
+                    if (container.isAsleep()) {
+                        asleep++;
+                    } else if (this.levelOfDetail.shouldUpdate(container)) {
+                        container.pendingDeltaTime = this.consumeDeltaTime(container, now);
+                        batch.add(container);
+                    }
+                }
+
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                this.parallelUpdater.update(batch);
+                updated += batch.size();
+                if (System.nanoTime() - deadline >= 0) {
+                    break;
+                }
+            }
+        } finally {
+            batch.clear();
+            cursor.position = position;
+        }
+
+        this.recordTick(visited, updated, asleep);
+        return visited;
+    }
+
+    /**
+     * 距上次更新的实际秒数，跳过的刻数累加在内
+     * <p>
+     * 休眠后唤醒的容器按一刻计算；其余情况不超过容器最长更新间隔对应的时间，
+     * 因预算不足推迟更新的容器不会一次补上过长的时间。
+     */
+    float consumeDeltaTime(MobComponentContainer container, long now) {
+        long lastUpdateNanos = container.lastUpdateNanos;
+        container.lastUpdateNanos = now;
+        if (lastUpdateNanos == 0L) {
+            return DEFAULT_DELTA_SECONDS;
+        }
+
+        int maxInterval = Math.min(this.levelOfDetail.getInterval(LevelOfDetail.Tier.DORMANT), container.getMaxTickInterval());
+        return Math.min((now - lastUpdateNanos) / 1.0e9f, maxInterval * DEFAULT_DELTA_SECONDS);
+    }
+
+    private void recordTick(int visited, int updated, int asleep) {
+        this.lastTickUpdated += updated;
+        this.lastTickSkipped += visited - updated - asleep;
+        this.lastTickAsleep += asleep;
+        this.totalUpdated += updated;
+    }
+
+    public LevelOfDetail getLevelOfDetail() {
+        return this.levelOfDetail;
+    }
+
+    /**
+     * 上一个服务端刻更新的容器数
+     */
+    public long getLastTickUpdated() {
+        return this.lastTickUpdated;
+    }
+
+    /**
+     * 上一个服务端刻因预算耗尽顺延的容器数
+     */
+    public long getLastTickDeferred() {
+        return this.lastTickDeferred;
+    }
+
+    /**
+     * 上一个服务端刻因距离分级跳过的容器数
+     */
+    public long getLastTickSkipped() {
+        return this.lastTickSkipped;
+    }
+
+    /**
+     * 上一个服务端刻因所有组件都在休眠而跳过的容器数
+     */
+    public long getLastTickAsleep() {
+        return this.lastTickAsleep;
+    }
+
+    public long getTotalUpdated() {
+        return this.totalUpdated;
+    }
+
+    /**
+     * 服务器停止时重置轮转位置
+     */
+    public void reset() {
+        this.parallelUpdater.shutdown();
+        this.cursors.clear();
+        this.remainingBudgetNanos = 0;
+        this.lastTickUpdated = 0;
+        this.lastTickDeferred = 0;
+        this.totalUpdated = 0;
+    }
+
+    private static final class LevelCursor {
+
+        private int position;
+
+    }
+
+}
@@ -0,0 +1,124 @@
+// ContainerRegistry.java - 容器注册表
+package com.glyceryl6.kinematic.core.container;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 按维度登记存活的组件容器，以实体 ID 为键
+ * <p>
+ * 容器在构造时自动登记、关闭时注销。容器同时保存在紧凑数组中，注销时与末尾交换，
+ * 供 {@link ComponentTickManager} 按下标轮转更新。只允许在服务端线程访问。
+ */
+public final class ContainerRegistry {
+
+    private static final Map<ResourceKey<Level>, ContainerRegistry> LEVEL_REGISTRIES = new ConcurrentHashMap<>();
+
+    private final ResourceKey<Level> dimension;
+    private final Int2ObjectOpenHashMap<MobComponentContainer> containers = new Int2ObjectOpenHashMap<>();
+    private MobComponentContainer[] ordered = new MobComponentContainer[16];
+    private int size;
+
+    private ContainerRegistry(ResourceKey<Level> dimension) {
+        this.dimension = dimension;
+    }
+
+    public static ContainerRegistry forLevel(ServerLevel level) {
+        return LEVEL_REGISTRIES.computeIfAbsent(level.dimension(), ContainerRegistry::new);
+    }
+
+    /**
+     * 获取所有维度的注册表
+     */
+    public static Collection<ContainerRegistry> all() {
+        return Collections.unmodifiableCollection(LEVEL_REGISTRIES.values());
+    }
+
+    /**
+     * 服务器停止时清空所有注册表
+     */
+    public static void clearAll() {
+        LEVEL_REGISTRIES.clear();
+    }
+
+    public void register(MobComponentContainer container) {
+        MobComponentContainer previous = this.containers.put(container.getMobEntity().getId(), container);
+        if (previous != null && previous != container) {
+            this.removeOrdered(previous);
+        }
+        if (previous != container) {
+            if (this.size == this.ordered.length) {
+                this.ordered = Arrays.copyOf(this.ordered, this.size * 2);
+            }
+            container.registryIndex = this.size;
+            this.ordered[this.size++] = container;
+        }
+    }
+
+    public void unregister(MobComponentContainer container) {
+        int entityId = container.getMobEntity().getId();
+        if (this.containers.get(entityId) == container) {
+            this.containers.remove(entityId);
+            this.removeOrdered(container);
+        }
+    }
+
+    private void removeOrdered(MobComponentContainer container) {
+        int index = container.registryIndex;
+        if (index < 0 || index >= this.size || this.ordered[index] != container) {
+            return;
+        }
+
+        MobComponentContainer last = this.ordered[--this.size];
+        this.ordered[index] = last;
+        last.registryIndex = index;
+        this.ordered[this.size] = null;
+        container.registryIndex = -1;
+    }
+
+    /**
+     * 按紧凑数组下标获取容器，下标范围为 [0, size)
+     */
+    public MobComponentContainer getAt(int index) {
+        return this.ordered[index];
+    }
+
+    /**
+     * 按实体 ID 获取容器
+     */
+    public MobComponentContainer get(int entityId) {
+        return this.containers.get(entityId);
+    }
+
+    public void forEach(Consumer<MobComponentContainer> action) {
+        for (int i = 0; i < this.size; i++) {
+            action.accept(this.ordered[i]);
+        }
+    }
+
+    /**
+     * 复制当前所有容器，遍历期间允许增删
+     */
+    public List<MobComponentContainer> snapshot() {
+        return List.of(Arrays.copyOf(this.ordered, this.size));
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public ResourceKey<Level> getDimension() {
+        return this.dimension;
+    }
+
+}
@@ -0,0 +1,142 @@
+// LevelOfDetail.java - 按距离分级更新
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.core.tick.TickClock;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.entity.Mob;
+
+import java.util.List;
+
+/**
+ * 按与最近玩家的距离决定容器的更新间隔
+ * <p>
+ * 距离分为四级，远处的容器每隔若干刻才更新一次，跳过的时间累加到下一次更新的 deltaTime 中。
+ * 每刻都会按最新的玩家位置重新分级，玩家靠近时立即恢复每刻更新；实体收到事件时也会在下一刻立即更新。
+ * 更新间隔不会超过容器内组件声明的 {@link com.glyceryl6.kinematic.core.architecture.Component#getMaxTickInterval()}。
+ */
+public final class LevelOfDetail {
+
+    /**
+     * 距离分级
+     */
+    public enum Tier {
+        FULL,
+        NEAR,
+        FAR,
+        DORMANT
+    }
+
+    // values() 每次调用都会复制数组
+    private static final Tier[] TIERS = Tier.values();
+
+    private volatile boolean enabled = true;
+    private final double[] tierDistances = {32.0, 64.0, 128.0};
+    private final int[] tierIntervals = {1, 2, 5, 20};
+    private double[] playerPositions = new double[0];
+    private int playerCount;
+    private long currentTick;
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * 设置分级距离（方块）和各级更新间隔（刻），距离须递增，间隔比距离多一项（最远一级）
+     */
+    public synchronized void configure(double[] distances, int[] intervals) {
+        if (distances.length != this.tierDistances.length || intervals.length != this.tierIntervals.length) {
+            throw new IllegalArgumentException("Expected " + this.tierDistances.length + " distances and "
+                    + this.tierIntervals.length + " intervals");
+        }
+
+        for (int i = 0; i < intervals.length; i++) {
+            if (intervals[i] < 1 || (i < distances.length && (distances[i] <= 0 || (i > 0 && distances[i] <= distances[i - 1])))) {
+                throw new IllegalArgumentException("Invalid level of detail configuration");
+            }
+        }
+
+        System.arraycopy(distances, 0, this.tierDistances, 0, distances.length);
+        System.arraycopy(intervals, 0, this.tierIntervals, 0, intervals.length);
+    }
+
+    public int getInterval(Tier tier) {
+        return this.tierIntervals[tier.ordinal()];
+    }
+
+    /**
+     * 在更新维度前记录玩家位置
+     */
+    void beginLevel(ServerLevel level) {
+        this.currentTick = TickClock.currentTick();
+        List<ServerPlayer> players = level.players();
+        int count = players.size();
+        if (this.playerPositions.length < count * 3) {
+            this.playerPositions = new double[count * 3];
+        }
+
+        int tracked = 0;
+        for (int i = 0; i < count; i++) {
+            ServerPlayer player = players.get(i);
+            // 旁观者不会让周围的生物保持活跃
+            if (player.isSpectator()) {
+                continue;
+            }
+
+            this.playerPositions[tracked * 3] = player.getX();
+            this.playerPositions[tracked * 3 + 1] = player.getY();
+            this.playerPositions[tracked * 3 + 2] = player.getZ();
+            tracked++;
+        }
+        this.playerCount = tracked;
+    }
+
+    /**
+     * 容器本刻是否需要更新，需要时记录本次更新的刻
+     */
+    boolean shouldUpdate(MobComponentContainer container) {
+        if (!this.enabled || container.consumeLodPromotion()) {
+            container.lodTier = Tier.FULL;
+            container.lastUpdateTick = this.currentTick;
+            return true;
+        }
+
+        Tier tier = this.tierOf(container.getMobEntity());
+        container.lodTier = tier;
+        int interval = Math.min(this.tierIntervals[tier.ordinal()], container.getMaxTickInterval());
+        if (this.currentTick - container.lastUpdateTick < interval) {
+            return false;
+        }
+
+        container.lastUpdateTick = this.currentTick;
+        return true;
+    }
+
+    private Tier tierOf(Mob mob) {
+        double nearest = Double.MAX_VALUE;
+        double x = mob.getX();
+        double y = mob.getY();
+        double z = mob.getZ();
+        double[] positions = this.playerPositions;
+        for (int i = 0, end = this.playerCount * 3; i < end; i += 3) {
+            double dx = positions[i] - x;
+            double dy = positions[i + 1] - y;
+            double dz = positions[i + 2] - z;
+            nearest = Math.min(nearest, dx * dx + dy * dy + dz * dz);
+        }
+
+        double[] distances = this.tierDistances;
+        for (int i = 0; i < distances.length; i++) {
+            if (nearest <= distances[i] * distances[i]) {
+                return TIERS[i];
+            }
+        }
+
+        return Tier.DORMANT;
+    }
+
+}
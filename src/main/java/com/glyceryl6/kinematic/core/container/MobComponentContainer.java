@@ -4,40 +4,143 @@ package com.glyceryl6.kinematic.core.container;
 import com.glyceryl6.kinematic.core.architecture.*;
 import com.glyceryl6.kinematic.core.dependency.DependencyInjector;
 import com.glyceryl6.kinematic.core.event.ComponentLifecycleEvent;
+import com.glyceryl6.kinematic.core.event.EntityEventBus;
+import com.glyceryl6.kinematic.core.event.LevelEventBus;
 import com.glyceryl6.kinematic.core.event.SimpleEventBus;
+import com.glyceryl6.kinematic.core.tick.TickClock;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Mob;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
 /**
  * 生物组件容器实现，支持动态加载和热替换
+ * <p>
+ * 组件按 {@link ComponentType} 序号保存在数组中，按类查找通过 {@link ClassValue} 缓存组件所在的槽位。
+ * 数组和共享的 {@link ComponentContext} 在添加第一个组件时才创建。更新顺序数组在增删组件时整体替换，
+ * 更新期间增删组件不影响本次遍历。只允许在服务端线程修改。
+ * <p>
+ * 关闭后的容器可以由 {@link MobContainers} 回收并重新绑定到同一实体类型的其他生物，
+ * 声明为可回收的组件会保留在容器中，供 {@link #getOrAddComponent} 重新初始化后复用。
+ * <p>
+ * 更新后报告空闲（{@link Component#isIdle()}）的组件进入休眠，不再参与更新，直到实体总线投递该组件监听的事件、
+ * 组件调用 {@link #wakeComponent} 或增删组件时被唤醒。所有组件都休眠的容器由 {@link ComponentTickManager} 直接跳过。
  */
 public class MobComponentContainer implements ComponentContainer {
 
-    private final Map<Class<? extends Component>, Component> componentsByClass = new ConcurrentHashMap<>();
-    private final Map<ComponentType, Component> componentsByType = new ConcurrentHashMap<>();
-    private final List<Component> updateOrder = new CopyOnWriteArrayList<>();
-    private final Mob mobEntity;
-    private final EventBus eventBus;
-    private boolean active = true;
+    private static final ComponentType[] COMPONENT_TYPES = ComponentType.values();
+    private static final Component[] NO_COMPONENTS = new Component[0];
+    private static final VarHandle WAKE_REQUESTS;
+
+    static {
+        try {
+            WAKE_REQUESTS = MethodHandles.lookup().findVarHandle(MobComponentContainer.class, "wakeRequests", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    // 组件类上次所在的类型槽位，按类查找时先检查该槽位
+    private static final ClassValue<int[]> CLASS_SLOTS = new ClassValue<>() {
+        @Override
+        protected int[] computeValue(Class<?> type) {
+            return new int[] {-1};
+        }
+    };
+
+    private Component[] components;
+    private Component[] updateOrder = NO_COMPONENTS;
+    private ComponentContext context;
+    // 关闭时保留的可回收组件，按类型序号存放
+    private Component[] recycled;
+    private Mob mobEntity;
+    private EventBus eventBus;
+    private boolean active;
+    // 由 ContainerRegistry 和 ComponentTickManager 维护
+    int registryIndex = -1;
+    long lastUpdateNanos;
+    float pendingDeltaTime;
+    long lastUpdateTick;
+    LevelOfDetail.Tier lodTier = LevelOfDetail.Tier.FULL;
+    // 收到事件后下一刻立即更新，不受距离分级限制
+    private volatile boolean lodPromoted;
+    private int maxTickInterval = Integer.MAX_VALUE;
+    // 组件集合每次变化时递增，保存时据此判断是否需要重新编码
+    private int structureVersion;
+    // 最近一次更新时抛出异常的组件，供分批热替换的金丝雀阶段检查
+    private Component lastFailedComponent;
+    // 加入后至少执行过一次更新的组件（按类型序号），供金丝雀阶段区分未更新的组件
+    private long updatedTypes;
+    // 醒着的组件（按更新顺序下标），超出 64 个的组件始终更新
+    private long awakeMask = -1L;
+    // 事件投递或其他线程请求唤醒的组件，下次更新时并入
+    private volatile long wakeRequests;
+    // 并行计算阶段已完成的组件（按更新顺序下标），超出 64 个的组件始终串行更新
+    private long parallelComputedMask;
 
     public MobComponentContainer(Mob mobEntity) {
+        this.bind(mobEntity);
+    }
+
+    /**
+     * 回收的容器绑定到新的生物，容器必须已经关闭
+     */
+    void rebind(Mob mobEntity) {
+        if (active) {
+            throw new IllegalStateException("Container is still bound to " + this.mobEntity);
+        }
+
+        registryIndex = -1;
+        lastUpdateNanos = 0L;
+        pendingDeltaTime = 0.0f;
+        lodTier = LevelOfDetail.Tier.FULL;
+        lodPromoted = false;
+        maxTickInterval = Integer.MAX_VALUE;
+        parallelComputedMask = 0L;
+        lastFailedComponent = null;
+        updatedTypes = 0L;
+        awakeMask = -1L;
+        wakeRequests = 0L;
+        this.bind(mobEntity);
+    }
+
+    private void bind(Mob mobEntity) {
         this.mobEntity = mobEntity;
-        this.eventBus = new SimpleEventBus();
+        this.active = true;
+        if (mobEntity.level() instanceof ServerLevel serverLevel) {
+            // 服务端使用维度共享总线上的实体视图，支持跨实体投递
+            EntityEventBus entityEventBus = LevelEventBus.forLevel(serverLevel).createView(mobEntity);
+            entityEventBus.setDeliveryHook(() -> lodPromoted = true);
+            // 只唤醒监听该事件的组件，监听器不属于任何组件时唤醒全部组件
+            entityEventBus.setWakeHook(component -> {
+                if (component != null) {
+                    wakeComponent(component);
+                } else {
+                    wakeRequests = -1L;
+                }
+            });
+            this.eventBus = entityEventBus;
+            ContainerRegistry.forLevel(serverLevel).register(this);
+        } else {
+            this.eventBus = new SimpleEventBus();
+        }
+        // 按实体 ID 错开低频更新的刻
+        this.lastUpdateTick = TickClock.currentTick() - Math.floorMod(mobEntity.getId(), 20);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Component> T getComponent(Class<T> componentClass) {
-        return (T) componentsByClass.get(componentClass);
+        int slot = slotOf(componentClass);
+        return slot >= 0 ? (T) components[slot] : null;
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <T extends Component> T getComponent(ComponentType type) {
-        return (T) componentsByType.get(type);
+        return components != null ? (T) components[type.ordinal()] : null;
     }
 
     @Override
@@ -46,23 +149,26 @@ public class MobComponentContainer implements ComponentContainer {
             throw new IllegalStateException("Container is shutdown");
         }
 
-        Class<? extends Component> componentClass = component.getClass();
         ComponentType componentType = component.getComponentType();
 
         // 检查是否已存在同类型组件
-        Component existing = componentsByType.get(componentType);
-        if (existing != null) {
-            removeComponent(existing.getClass());
+        if (components == null) {
+            components = new Component[COMPONENT_TYPES.length];
+            context = new ComponentContext(this, mobEntity, eventBus);
+        } else if (components[componentType.ordinal()] != null) {
+            removeComponent(componentType);
         }
 
-        // 初始化组件
-        ComponentContext context = new ComponentContext(this, mobEntity, eventBus);
+        // 初始化组件，所有组件共享容器的上下文
         component.initialize(context);
         // 注册组件
-        componentsByClass.put(componentClass, component);
-        componentsByType.put(componentType, component);
+        components[componentType.ordinal()] = component;
+        updatedTypes &= ~(1L << componentType.ordinal());
+        CLASS_SLOTS.get(component.getClass())[0] = componentType.ordinal();
         // 按优先级排序插入更新列表
         insertByPriority(component);
+        updateMaxTickInterval();
+        structureVersion++;
         // 注入依赖
         DependencyInjector.injectDependencies(component, context);
         // 注册事件监听
@@ -73,26 +179,25 @@ public class MobComponentContainer implements ComponentContainer {
 
     @Override
     public void removeComponent(Class<? extends Component> componentClass) {
-        Component component = componentsByClass.remove(componentClass);
-        if (component != null) {
-            removeComponentInternal(component);
+        int slot = slotOf(componentClass);
+        if (slot >= 0) {
+            removeComponentInternal(slot);
         }
     }
 
     @Override
     public void removeComponent(ComponentType type) {
-        Component component = componentsByType.remove(type);
-        if (component != null) {
-            removeComponentInternal(component);
+        if (components != null && components[type.ordinal()] != null) {
+            removeComponentInternal(type.ordinal());
         }
     }
 
-    private void removeComponentInternal(Component component) {
-        Class<? extends Component> componentClass = component.getClass();
-        ComponentType componentType = component.getComponentType();
-        componentsByClass.remove(componentClass);
-        componentsByType.remove(componentType);
-        updateOrder.remove(component);
+    private void removeComponentInternal(int slot) {
+        Component component = components[slot];
+        components[slot] = null;
+        removeFromUpdateOrder(component);
+        updateMaxTickInterval();
+        structureVersion++;
         // 取消事件监听
         eventBus.unregisterComponent(component);
         // 发布组件移除事件
@@ -104,99 +209,478 @@ public class MobComponentContainer implements ComponentContainer {
     @Override
     public void updateComponents(float deltaTime) {
         if (!active) return;
-        for (Component component : updateOrder) {
-            if (component.isEnabled()) {
-                try {
+        // 先投递本刻合并后的事件，组件在更新时看到的是最新状态
+        eventBus.flushCoalesced();
+        Component[] order = updateOrder;
+        long awake = consumeAwakeMask(order.length);
+        long asleep = 0L;
+        // 只遍历醒着的组件，保持更新顺序
+        for (long remaining = awake; remaining != 0; remaining &= remaining - 1) {
+            int index = Long.numberOfTrailingZeros(remaining);
+            if (updateComponent(order[index], deltaTime, true)) {
+                asleep |= 1L << index;
+            }
+        }
+        for (int index = Long.SIZE; index < order.length; index++) {
+            updateComponent(order[index], deltaTime, false);
+        }
+        settleAwakeMask(order, awake & ~asleep);
+        // 更新期间组件自己投递的事件不触发提前更新
+        lodPromoted = false;
+    }
+
+    /**
+     * 更新单个组件，返回组件是否进入休眠
+     */
+    private boolean updateComponent(Component component, float deltaTime, boolean canSleep) {
+        if (!component.isEnabled()) {
+            return false;
+        }
+
+        updatedTypes |= 1L << component.getComponentType().ordinal();
+        try {
+            component.update(deltaTime);
+            if (canSleep && component.isIdle()) {
+                component.onSleep();
+                return true;
+            }
+            return false;
+        } catch (Exception e) {
+            // 记录错误但不中断其他组件
+            lastFailedComponent = component;
+            System.err.println("Error updating component: " + component.getComponentId());
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    /**
+     * 并入唤醒请求，返回本次需要更新的组件（前 64 个）
+     */
+    private long consumeAwakeMask(int length) {
+        long requests = wakeRequests != 0L ? (long) WAKE_REQUESTS.getAndSet(this, 0L) : 0L;
+        long lengthMask = length >= Long.SIZE ? -1L : (1L << length) - 1;
+        return (awakeMask | requests) & lengthMask;
+    }
+
+    /**
+     * 记录更新后仍醒着的组件，并入更新期间收到的唤醒请求，更新期间增删过组件时保持全部唤醒
+     * <p>
+     * 所有组件都进入休眠时清除上次更新时间，唤醒后的第一次更新不把休眠的时长算作 deltaTime。
+     */
+    private void settleAwakeMask(Component[] order, long awake) {
+        if (updateOrder == order) {
+            long requests = wakeRequests != 0L ? (long) WAKE_REQUESTS.getAndSet(this, 0L) : 0L;
+            awakeMask = awake | requests;
+            if (isAsleep()) {
+                lastUpdateNanos = 0L;
+            }
+        }
+    }
+
+    /**
+     * 并行更新的准备阶段，在服务端线程上投递本刻合并后的事件
+     */
+    void prepareParallelUpdate() {
+        if (active) {
+            eventBus.flushCoalesced();
+            // 计算阶段只读取醒着的组件
+            awakeMask = consumeAwakeMask(updateOrder.length);
+        }
+    }
+
+    /**
+     * 并行更新的计算阶段，在工作线程上执行所有声明为并行安全的组件
+     */
+    void computeParallelUpdate(float deltaTime) {
+        long computed = 0L;
+        if (active) {
+            Component[] order = updateOrder;
+            long awake = awakeMask;
+            for (int i = 0, size = Math.min(order.length, Long.SIZE); i < size; i++) {
+                Component component = order[i];
+                if ((awake & (1L << i)) != 0 && component.isEnabled()
+                        && component instanceof ParallelUpdateComponent parallel && parallel.isParallelSafe()) {
+                    try {
+                        parallel.computeUpdate(deltaTime);
+                        computed |= 1L << i;
+                    } catch (Exception e) {
+                        // 计算失败的组件在应用阶段改为串行更新
+                        System.err.println("Error computing component in parallel: " + component.getComponentId());
+                        e.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        parallelComputedMask = computed;
+    }
+
+    /**
+     * 丢弃计算阶段的结果，之后由 {@link #updateComponents} 串行更新
+     */
+    void discardParallelUpdate() {
+        parallelComputedMask = 0L;
+    }
+
+    /**
+     * 并行更新的应用阶段，在服务端线程上按更新顺序应用计算结果，其余组件串行更新
+     */
+    void applyParallelUpdate(float deltaTime) {
+        long computed = parallelComputedMask;
+        parallelComputedMask = 0L;
+        if (!active) return;
+        Component[] order = updateOrder;
+        long awake = awakeMask;
+        long asleep = 0L;
+        for (int i = 0; i < order.length; i++) {
+            Component component = order[i];
+            if (!component.isEnabled() || i < Long.SIZE && (awake & (1L << i)) == 0) {
+                continue;
+            }
+
+            updatedTypes |= 1L << component.getComponentType().ordinal();
+            try {
+                if (i < Long.SIZE && (computed & (1L << i)) != 0) {
+                    ((ParallelUpdateComponent) component).applyUpdate(deltaTime);
+                } else {
                     component.update(deltaTime);
-                } catch (Exception e) {
-                    // 记录错误但不中断其他组件
-                    System.err.println("Error updating component: " + component.getComponentId());
-                    e.printStackTrace();
                 }
+                if (i < Long.SIZE && component.isIdle()) {
+                    component.onSleep();
+                    asleep |= 1L << i;
+                }
+            } catch (Exception e) {
+                lastFailedComponent = component;
+                System.err.println("Error updating component: " + component.getComponentId());
+                e.printStackTrace();
             }
         }
+        settleAwakeMask(order, awake & ~asleep);
+        lodPromoted = false;
     }
 
     @Override
     public boolean hasComponent(Class<? extends Component> componentClass) {
-        return componentsByClass.containsKey(componentClass);
+        return slotOf(componentClass) >= 0;
     }
 
     @Override
     public boolean hasComponent(ComponentType type) {
-        return componentsByType.containsKey(type);
+        return components != null && components[type.ordinal()] != null;
     }
 
+    /**
+     * 当前组件类型的快照
+     */
     @Override
     public Set<ComponentType> getComponentTypes() {
-        return Collections.unmodifiableSet(componentsByType.keySet());
+        EnumSet<ComponentType> types = EnumSet.noneOf(ComponentType.class);
+        for (Component component : updateOrder) {
+            types.add(component.getComponentType());
+        }
+
+        return Collections.unmodifiableSet(types);
     }
 
     @Override
     public int getComponentCount() {
-        return componentsByClass.size();
+        return updateOrder.length;
     }
 
     @Override
     public void shutdown() {
+        if (!active) return;
         active = false;
-        // 关闭所有组件
+        if (mobEntity.level() instanceof ServerLevel serverLevel) {
+            ContainerRegistry.forLevel(serverLevel).unregister(this);
+        }
+        // 关闭所有组件，可回收的组件留待复用
+        Component[] kept = null;
         for (Component component : updateOrder) {
             try {
                 component.shutdown();
+                if (component.isRecyclable()) {
+                    if (kept == null) {
+                        kept = new Component[COMPONENT_TYPES.length];
+                    }
+                    kept[component.getComponentType().ordinal()] = component;
+                }
             } catch (Exception e) {
                 System.err.println("Error shutting down component: " + component.getComponentId());
                 e.printStackTrace();
             }
         }
 
-        componentsByClass.clear();
-        componentsByType.clear();
-        updateOrder.clear();
+        recycled = kept;
+        components = null;
+        context = null;
+        updateOrder = NO_COMPONENTS;
+        if (eventBus instanceof EntityEventBus entityEventBus) {
+            entityEventBus.close();
+        }
     }
 
     /**
-     * 热替换组件
+     * 获取指定类的组件，不存在时优先复用回收的同类组件，否则用工厂创建并添加
      */
-    public void hotSwapComponent(Component newComponent) {
-        ComponentType componentType = newComponent.getComponentType();
-        Component oldComponent = componentsByType.get(componentType);
+    @SuppressWarnings("unchecked")
+    public <T extends Component> T getOrAddComponent(Class<T> componentClass, Supplier<? extends T> factory) {
+        T component = getComponent(componentClass);
+        if (component != null) {
+            return component;
+        }
 
-        if (oldComponent != null) {
-            // 保存旧组件的状态
-            ComponentState state = oldComponent instanceof StatefulComponent ?
-                    ((StatefulComponent) oldComponent).saveState() : null;
+        if (recycled != null) {
+            for (int i = 0; i < recycled.length; i++) {
+                if (recycled[i] != null && recycled[i].getClass() == componentClass) {
+                    component = (T) recycled[i];
+                    recycled[i] = null;
+                    component.setEnabled(true);
+                    break;
+                }
+            }
+        }
 
-            // 移除旧组件
-            removeComponent(componentType);
+        if (component == null) {
+            component = factory.get();
+        }
 
-            // 如果新组件支持状态恢复，则恢复状态
-            if (state != null && newComponent instanceof StatefulComponent) {
-                ((StatefulComponent) newComponent).restoreState(state);
+        addComponent(component);
+        return component;
+    }
+
+    /**
+     * 回收后保留的组件数
+     */
+    int getRecycledCount() {
+        int count = 0;
+        if (recycled != null) {
+            for (Component component : recycled) {
+                if (component != null) {
+                    count++;
+                }
             }
         }
 
-        // 添加新组件
+        return count;
+    }
+
+    /**
+     * 放入回收池前解除与生物的引用
+     */
+    void detach() {
+        mobEntity = null;
+        eventBus = null;
+    }
+
+    /**
+     * 热替换组件
+     */
+    public void hotSwapComponent(Component newComponent) {
+        Component oldComponent = getComponent(newComponent.getComponentType());
+
+        // 保存旧组件的状态
+        ComponentState state = oldComponent instanceof StatefulComponent ?
+                ((StatefulComponent) oldComponent).saveStateForSwap() : null;
+
+        swapComponent(newComponent, state);
+    }
+
+    /**
+     * 用给定的状态替换同类型的组件，状态已由调用方保存
+     */
+    void swapComponent(Component newComponent, ComponentState state) {
+        // 添加新组件（同时移除旧组件）
         addComponent(newComponent);
 
+        // 如果新组件支持状态恢复，则在初始化之后恢复状态
+        if (state != null && newComponent instanceof StatefulComponent) {
+            ((StatefulComponent) newComponent).restoreState(state);
+        }
+
         eventBus.post(new ComponentLifecycleEvent(
                 ComponentLifecycleEvent.Type.COMPONENT_HOT_SWAPPED, newComponent));
     }
 
     private void insertByPriority(Component component) {
+        Component[] order = updateOrder;
         int index = 0;
-        for (; index < updateOrder.size(); index++) {
-            if (component.getPriority() > updateOrder.get(index).getPriority()) {
+        for (; index < order.length; index++) {
+            if (component.getPriority() > order[index].getPriority()) {
                 break;
             }
         }
 
-        updateOrder.add(index, component);
+        Component[] updated = new Component[order.length + 1];
+        System.arraycopy(order, 0, updated, 0, index);
+        updated[index] = component;
+        System.arraycopy(order, index, updated, index + 1, order.length - index);
+        updateOrder = updated;
+        // 下标发生变化，全部唤醒
+        awakeMask = -1L;
+    }
+
+    private void removeFromUpdateOrder(Component component) {
+        Component[] order = updateOrder;
+        for (int index = 0; index < order.length; index++) {
+            if (order[index] == component) {
+                Component[] updated = order.length == 1 ? NO_COMPONENTS : new Component[order.length - 1];
+                System.arraycopy(order, 0, updated, 0, index);
+                System.arraycopy(order, index + 1, updated, index, order.length - index - 1);
+                updateOrder = updated;
+                awakeMask = -1L;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 组件类（精确匹配）所在的类型槽位，不存在时返回 -1
+     */
+    private int slotOf(Class<?> componentClass) {
+        Component[] components = this.components;
+        if (components == null) {
+            return -1;
+        }
+
+        int[] cached = CLASS_SLOTS.get(componentClass);
+        int slot = cached[0];
+        if (slot >= 0 && components[slot] != null && components[slot].getClass() == componentClass) {
+            return slot;
+        }
+
+        // 同一个类的组件在不同容器中可能使用不同类型，缓存未命中时按序号查找
+        for (int i = 0; i < components.length; i++) {
+            if (components[i] != null && components[i].getClass() == componentClass) {
+                cached[0] = i;
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private void updateMaxTickInterval() {
+        int interval = Integer.MAX_VALUE;
+        for (Component component : updateOrder) {
+            interval = Math.min(interval, Math.max(1, component.getMaxTickInterval()));
+        }
+
+        maxTickInterval = interval;
+    }
+
+    /**
+     * 请求在下一刻立即更新，不受距离分级限制
+     */
+    public void promote() {
+        lodPromoted = true;
+    }
+
+    boolean consumeLodPromotion() {
+        if (!lodPromoted) {
+            return false;
+        }
+
+        lodPromoted = false;
+        return true;
+    }
+
+    /**
+     * 唤醒休眠的组件，下次更新容器时执行，可以在任意线程调用
+     */
+    @Override
+    public void wakeComponent(Component component) {
+        Component[] order = updateOrder;
+        for (int i = 0, size = Math.min(order.length, Long.SIZE); i < size; i++) {
+            if (order[i] == component) {
+                long bit = 1L << i;
+                // 醒着的组件也要记录：更新过程中已报告空闲的组件可能在同一轮中再次被唤醒
+                if ((wakeRequests & bit) == 0) {
+                    WAKE_REQUESTS.getAndBitwiseOr(this, bit);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 所有组件都在休眠，没有待处理的唤醒请求
+     */
+    public boolean isAsleep() {
+        Component[] order = updateOrder;
+        if (!active || order.length == 0 || order.length > Long.SIZE || wakeRequests != 0L) {
+            return false;
+        }
+
+        long lengthMask = order.length == Long.SIZE ? -1L : (1L << order.length) - 1;
+        return (awakeMask & lengthMask) == 0;
+    }
+
+    /**
+     * 醒着的组件数
+     */
+    public int getAwakeCount() {
+        Component[] order = updateOrder;
+        if (order.length > Long.SIZE) {
+            return Long.bitCount(awakeView(Long.SIZE)) + order.length - Long.SIZE;
+        }
+
+        return Long.bitCount(awakeView(order.length));
+    }
+
+    private long awakeView(int length) {
+        long lengthMask = length >= Long.SIZE ? -1L : (1L << length) - 1;
+        return (awakeMask | wakeRequests) & lengthMask;
+    }
+
+    /**
+     * 所有组件允许的最大更新间隔中的最小值
+     */
+    public int getMaxTickInterval() {
+        return maxTickInterval;
+    }
+
+    /**
+     * 组件集合的版本，添加或移除组件时递增
+     */
+    int getStructureVersion() {
+        return structureVersion;
+    }
+
+    /**
+     * 最近一次更新时抛出异常的组件，没有时返回 null
+     */
+    Component getLastFailedComponent() {
+        return lastFailedComponent;
+    }
+
+    /**
+     * 组件仍在容器中，并且加入后至少执行过一次更新（包括抛出异常的更新）
+     */
+    boolean hasUpdated(Component component) {
+        int slot = component.getComponentType().ordinal();
+        return components != null && components[slot] == component && (updatedTypes & (1L << slot)) != 0;
+    }
+
+    /**
+     * 最近一次按距离确定的分级
+     */
+    public LevelOfDetail.Tier getLodTier() {
+        return lodTier;
+    }
+
+    public Mob getMobEntity() {
+        return mobEntity;
+    }
+
+    public boolean isActive() {
+        return active;
     }
 
     // 获取内部状态用于调试
     public ContainerDebugInfo getDebugInfo() {
-        return new ContainerDebugInfo(mobEntity.getUUID(), componentsByType.keySet(), updateOrder.size(), active);
+        return new ContainerDebugInfo(mobEntity.getUUID(), getComponentTypes(), updateOrder.length, active);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,168 @@
+// MobContainers.java - 容器附加数据与回收池
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.KinematicCraft;
+import com.glyceryl6.kinematic.core.architecture.Component;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.neoforged.neoforge.attachment.AttachmentType;
+import net.neoforged.neoforge.registries.DeferredRegister;
+import net.neoforged.neoforge.registries.NeoForgeRegistries;
+
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 生物与组件容器的绑定
+ * <p>
+ * 容器作为实体的数据附加保存，只在第一次通过 {@link #getOrCreate} 或 {@link #getOrAddComponent} 访问时创建，
+ * 从未使用组件的生物没有任何开销。生物离开维度（卸载、死亡后移除、切换维度）时容器被关闭并放回按实体类型划分的
+ * 有界回收池，同类型的下一个生物直接复用容器和其中可回收的组件。回收池只用于服务端，只允许在服务端线程访问。
+ * 服务端容器同时绑定生物的 {@link #PERSISTED_STATE}，组件状态随实体保存，见 {@link ComponentPersistence}。
+ */
+public final class MobContainers {
+
+    public static final DeferredRegister<AttachmentType<?>> ATTACHMENT_TYPES =
+            DeferredRegister.create(NeoForgeRegistries.ATTACHMENT_TYPES, KinematicCraft.MOD_ID);
+    public static final Supplier<AttachmentType<MobComponentContainer>> CONTAINER = ATTACHMENT_TYPES.register(
+            "component_container", () -> AttachmentType.builder(holder -> acquire((Mob) holder)).build());
+    // 随实体保存的组件状态，与容器分开存放，容器回收后状态仍留在生物上
+    public static final Supplier<AttachmentType<PersistedComponents>> PERSISTED_STATE = ATTACHMENT_TYPES.register(
+            "component_state", () -> AttachmentType.builder(() -> new PersistedComponents())
+                    .serialize(PersistedComponents.SERIALIZER).build());
+
+    private static final int MAX_POOLED_PER_TYPE = 128;
+    private static final Map<EntityType<?>, ArrayDeque<MobComponentContainer>> POOLS = new IdentityHashMap<>();
+    private static long created;
+    private static long reused;
+
+    private MobContainers() {}
+
+    /**
+     * 获取生物已有的容器，没有时返回 null 且不创建
+     */
+    public static MobComponentContainer get(Mob mob) {
+        return mob.hasData(CONTAINER.get()) ? mob.getData(CONTAINER.get()) : null;
+    }
+
+    /**
+     * 获取生物的容器，没有时从回收池取出或新建
+     */
+    public static MobComponentContainer getOrCreate(Mob mob) {
+        return mob.getData(CONTAINER.get());
+    }
+
+    /**
+     * 获取生物的指定组件，不存在时复用回收的同类组件或用工厂创建
+     */
+    public static <T extends Component> T getOrAddComponent(Mob mob, Class<T> componentClass, Supplier<? extends T> factory) {
+        return getOrCreate(mob).getOrAddComponent(componentClass, factory);
+    }
+
+    /**
+     * 关闭生物的容器并放回回收池，生物没有容器时不做任何事
+     */
+    public static void release(Mob mob) {
+        if (mob.hasData(CONTAINER.get())) {
+            MobComponentContainer container = mob.removeData(CONTAINER.get());
+            if (container != null) {
+                recycle(container);
+            }
+        }
+    }
+
+    /**
+     * 关闭容器，容器是生物的附加数据时同时移除并放回回收池
+     */
+    public static void release(MobComponentContainer container) {
+        Mob mob = container.getMobEntity();
+        if (mob != null && mob.hasData(CONTAINER.get()) && mob.getData(CONTAINER.get()) == container) {
+            release(mob);
+        } else {
+            container.shutdown();
+        }
+    }
+
+    private static void recycle(MobComponentContainer container) {
+        Mob mob = container.getMobEntity();
+        if (mob == null) {
+            return;
+        }
+
+        if (mob.level() instanceof ServerLevel) {
+            // 关闭之前保存最后的状态，生物稍后写盘时直接使用
+            mob.getData(PERSISTED_STATE.get()).unbind();
+        }
+
+        container.shutdown();
+        if (!(mob.level() instanceof ServerLevel)) {
+            return;
+        }
+
+        ArrayDeque<MobComponentContainer> pool = POOLS.computeIfAbsent(mob.getType(), type -> new ArrayDeque<>());
+        if (pool.size() < MAX_POOLED_PER_TYPE) {
+            container.detach();
+            pool.push(container);
+        }
+    }
+
+    private static MobComponentContainer acquire(Mob mob) {
+        if (!(mob.level() instanceof ServerLevel)) {
+            created++;
+            return new MobComponentContainer(mob);
+        }
+
+        ArrayDeque<MobComponentContainer> pool = POOLS.get(mob.getType());
+        MobComponentContainer container = pool != null ? pool.poll() : null;
+        if (container != null) {
+            reused++;
+            container.rebind(mob);
+        } else {
+            created++;
+            container = new MobComponentContainer(mob);
+        }
+
+        // 绑定保存的状态，有读取的数据时恢复组件
+        mob.getData(PERSISTED_STATE.get()).bind(container);
+        return container;
+    }
+
+    /**
+     * 回收池中的容器数
+     */
+    public static int getPooledCount() {
+        int count = 0;
+        for (ArrayDeque<MobComponentContainer> pool : POOLS.values()) {
+            count += pool.size();
+        }
+
+        return count;
+    }
+
+    /**
+     * 新建的容器数
+     */
+    public static long getCreatedCount() {
+        return created;
+    }
+
+    /**
+     * 从回收池复用的容器数
+     */
+    public static long getReusedCount() {
+        return reused;
+    }
+
+    /**
+     * 服务器停止时清空回收池
+     */
+    public static void clear() {
+        POOLS.clear();
+        created = 0;
+        reused = 0;
+    }
+
+}
@@ -0,0 +1,147 @@
+// ParallelContainerUpdater.java - 并行容器更新
+package com.glyceryl6.kinematic.core.container;
+
+import net.minecraft.world.level.ChunkPos;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 两阶段并行更新一批容器
+ * <p>
+ * 先在服务端线程投递合并事件，再按区块区域（8x8 区块）分组，在 ForkJoin 线程池上并行执行计算阶段，
+ * 最后回到服务端线程按批次顺序执行应用阶段。同一区域的生物在同一个任务中更新，访问的数据更集中。
+ * 计算阶段的任务失败或等待被中断时，丢弃整批的计算结果，改为在服务端线程上串行更新整批容器。
+ * 工作线程数默认为处理器数减一，可以通过 -Dkinematic.parallelThreads 指定。
+ */
+final class ParallelContainerUpdater {
+
+    private static final int REGION_SHIFT = 3;
+    private static final int DEFAULT_PARALLELISM = Integer.getInteger("kinematic.parallelThreads",
+            Runtime.getRuntime().availableProcessors() - 1);
+
+    private final int parallelism;
+    private ForkJoinPool pool;
+
+    ParallelContainerUpdater() {
+        this(DEFAULT_PARALLELISM);
+    }
+
+    ParallelContainerUpdater(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * 并行更新一批容器，每个容器的 deltaTime 预先写入 pendingDeltaTime
+     */
+    void update(List<MobComponentContainer> batch) {
+        for (MobComponentContainer container : batch) {
+            container.prepareParallelUpdate();
+        }
+
+        Map<Long, List<MobComponentContainer>> regions = new HashMap<>();
+        for (MobComponentContainer container : batch) {
+            ChunkPos chunk = container.getMobEntity().chunkPosition();
+            long region = ((long) (chunk.x >> REGION_SHIFT) << 32) | ((chunk.z >> REGION_SHIFT) & 0xFFFFFFFFL);
+            regions.computeIfAbsent(region, key -> new ArrayList<>()).add(container);
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>(regions.size());
+        for (List<MobComponentContainer> region : regions.values()) {
+            tasks.add(() -> {
+                for (MobComponentContainer container : region) {
+                    container.computeParallelUpdate(container.pendingDeltaTime);
+                }
+                return null;
+            });
+        }
+
+        if (!this.compute(tasks)) {
+            // 计算结果不完整，整批改为串行更新，计算阶段只修改组件自身状态，重新执行不影响结果
+            for (MobComponentContainer container : batch) {
+                container.discardParallelUpdate();
+                container.updateComponents(container.pendingDeltaTime);
+            }
+            return;
+        }
+
+        for (MobComponentContainer container : batch) {
+            container.applyParallelUpdate(container.pendingDeltaTime);
+        }
+    }
+
+    /**
+     * 执行计算阶段并等待所有任务结束，返回是否全部成功
+     * <p>
+     * 等待期间的中断只在所有任务结束后恢复，返回时不会有任务仍在修改组件。
+     */
+    private boolean compute(List<Callable<Void>> tasks) {
+        List<Future<Void>> futures = new ArrayList<>(tasks.size());
+        boolean success = true;
+        try {
+            ForkJoinPool pool = this.pool();
+            for (Callable<Void> task : tasks) {
+                futures.add(pool.submit(task));
+            }
+        } catch (RejectedExecutionException e) {
+            System.err.println("Parallel component update rejected, updating serially");
+            success = false;
+        }
+
+        boolean interrupted = false;
+        for (Future<Void> future : futures) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    System.err.println("Error in parallel component update, updating serially");
+                    e.getCause().printStackTrace();
+                    success = false;
+                    break;
+                }
+            }
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        return success;
+    }
+
+    private ForkJoinPool pool() {
+        if (this.pool == null) {
+            this.pool = new ForkJoinPool(this.parallelism, pool -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                thread.setName("Kinematic Parallel Worker-" + thread.getPoolIndex());
+                thread.setDaemon(true);
+                return thread;
+            }, null, false);
+        }
+
+        return this.pool;
+    }
+
+    /**
+     * 关闭线程池，下次使用时重新创建
+     */
+    void shutdown() {
+        if (this.pool != null) {
+            this.pool.shutdown();
+            this.pool = null;
+        }
+    }
+
+}
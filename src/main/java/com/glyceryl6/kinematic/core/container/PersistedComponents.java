@@ -0,0 +1,190 @@
+// PersistedComponents.java - 组件持久化数据
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.core.architecture.*;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.ByteArrayTag;
+import net.neoforged.neoforge.attachment.IAttachmentHolder;
+import net.neoforged.neoforge.attachment.IAttachmentSerializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 随实体保存的组件状态，作为可序列化的数据附加保存为一个字节数组标签
+ * <p>
+ * 格式：格式版本、组件数（变长整数），之后每个组件为组件 ID、编码长度和 {@link ComponentStateCodec} 编码。
+ * 保存时只有组件集合或组件状态自上次保存以来变化的容器才重新编码，其余直接复用上次的编码。
+ * 读取时只保留编码，容器在所在区块开始处理实体时才创建并恢复，见 {@link ComponentPersistence}。
+ */
+public final class PersistedComponents {
+
+    private static final int FORMAT_VERSION = 1;
+
+    public static final IAttachmentSerializer<ByteArrayTag, PersistedComponents> SERIALIZER = new IAttachmentSerializer<>() {
+        @Override
+        public PersistedComponents read(IAttachmentHolder holder, ByteArrayTag tag, HolderLookup.Provider provider) {
+            return new PersistedComponents(tag.getAsByteArray());
+        }
+
+        @Override
+        public ByteArrayTag write(PersistedComponents attachment, HolderLookup.Provider provider) {
+            byte[] encoded = attachment.save();
+            return encoded != null ? new ByteArrayTag(encoded) : null;
+        }
+    };
+
+    private static long encodedCount;
+    private static long reusedCount;
+
+    // 最近一次保存或读取的编码，没有需要保存的组件时为 null
+    private byte[] encoded;
+    private boolean pendingRestore;
+    private MobComponentContainer container;
+    private int savedStructureVersion = -1;
+
+    public PersistedComponents() {}
+
+    private PersistedComponents(byte[] encoded) {
+        this.encoded = encoded;
+        this.pendingRestore = encoded.length > 0;
+    }
+
+    /**
+     * 是否还有读取后尚未恢复到容器的数据
+     */
+    public boolean isPendingRestore() {
+        return this.pendingRestore;
+    }
+
+    /**
+     * 绑定生物的容器，有待恢复的数据时立即恢复
+     */
+    void bind(MobComponentContainer container) {
+        this.container = container;
+        this.savedStructureVersion = -1;
+        if (this.pendingRestore) {
+            this.pendingRestore = false;
+            try {
+                this.restore(container);
+            } catch (RuntimeException | IOException e) {
+                System.err.println("Failed to restore components for " + container.getMobEntity());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * 容器被回收前保存最后的状态并解除绑定
+     */
+    void unbind() {
+        if (this.container != null) {
+            this.save();
+            this.container = null;
+        }
+    }
+
+    /**
+     * 返回当前状态的编码，只在状态变化时重新编码
+     */
+    byte[] save() {
+        MobComponentContainer container = this.container;
+        if (container == null || !container.isActive()) {
+            return this.encoded;
+        }
+
+        if (container.getStructureVersion() != this.savedStructureVersion || hasDirtyState(container)) {
+            try {
+                this.encoded = encode(container);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to encode components", e);
+            }
+            this.savedStructureVersion = container.getStructureVersion();
+            encodedCount++;
+        } else {
+            reusedCount++;
+        }
+
+        return this.encoded;
+    }
+
+    /**
+     * 重新编码的保存次数
+     */
+    public static long getEncodedCount() {
+        return encodedCount;
+    }
+
+    /**
+     * 直接复用上次编码的保存次数
+     */
+    public static long getReusedCount() {
+        return reusedCount;
+    }
+
+    private static boolean hasDirtyState(MobComponentContainer container) {
+        for (ComponentType type : ComponentType.values()) {
+            if (container.getComponent(type) instanceof StatefulComponent stateful
+                    && stateful.getStateSchema() != null && stateful.isStateDirty()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static byte[] encode(MobComponentContainer container) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        int count = 0;
+        for (ComponentType type : ComponentType.values()) {
+            if (container.getComponent(type) instanceof StatefulComponent stateful && stateful.getStateSchema() != null
+                    && ComponentPersistence.isRegistered(stateful)) {
+                byte[] state = ComponentStateCodec.encode(stateful.saveState());
+                out.writeUTF(stateful.getComponentId());
+                ComponentStateCodec.writeVarInt(out, state.length);
+                out.write(state);
+                stateful.markStateSaved();
+                count++;
+            }
+        }
+
+        if (count == 0) {
+            return null;
+        }
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream(bytes.size() + 4);
+        DataOutputStream header = new DataOutputStream(result);
+        ComponentStateCodec.writeVarInt(header, FORMAT_VERSION);
+        ComponentStateCodec.writeVarInt(header, count);
+        bytes.writeTo(result);
+        return result.toByteArray();
+    }
+
+    private void restore(MobComponentContainer container) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.encoded));
+        int version = ComponentStateCodec.readVarInt(in);
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported component data format " + version);
+        }
+
+        for (int i = 0, count = ComponentStateCodec.readVarInt(in); i < count; i++) {
+            String componentId = in.readUTF();
+            byte[] state = new byte[ComponentStateCodec.readVarInt(in)];
+            in.readFully(state);
+            // 未注册的组件无法重建，数据在下次保存时丢弃
+            StatefulComponent component = ComponentPersistence.createOrReuse(container, componentId);
+            if (component == null) {
+                System.err.println("Skipping persisted state of unknown component: " + componentId);
+                continue;
+            }
+
+            component.restoreState(ComponentStateCodec.decode(component.getStateSchema(), state));
+            component.markStateSaved();
+        }
+    }
+
+}
@@ -2,18 +2,26 @@
 package com.glyceryl6.kinematic.core.event;
 
 import com.glyceryl6.kinematic.core.architecture.Component;
+import com.glyceryl6.kinematic.core.tick.TickClock;
 
+/**
+ * 组件事件基类，以服务端刻作为时间戳
+ * <p>
+ * 高频事件可以复用可变实例，这类事件只在分发期间有效。需要在分发结束后继续持有事件的监听器
+ * 必须调用 {@link #retain()} 获取独立的副本；事件总线在把事件放入队列前也会这样做。
+ * 原来返回毫秒时间戳的 getTimestamp() 已移除，时间改用 {@link #getTick()}。
+ */
 public abstract class ComponentEvent {
 
     private final String eventType;
-    private final Component source;
+    private Component source;
     private boolean cancelled = false;
-    private final long timestamp;
+    private long tick;
 
     public ComponentEvent(String eventType, Component source) {
         this.eventType = eventType;
         this.source = source;
-        this.timestamp = System.currentTimeMillis();
+        this.tick = TickClock.currentTick();
     }
 
     public String getEventType() {
@@ -32,8 +40,27 @@ public abstract class ComponentEvent {
         this.cancelled = cancelled;
     }
 
-    public long getTimestamp() {
-        return timestamp;
+    /**
+     * 事件创建时的服务端刻
+     */
+    public long getTick() {
+        return tick;
     }
 
-}
\ No newline at end of file
+    /**
+     * 返回可以在分发结束后继续持有的事件，复用实例的事件需要重写并返回副本
+     */
+    public ComponentEvent retain() {
+        return this;
+    }
+
+    /**
+     * 复用实例前重置来源、取消状态和时间戳
+     */
+    protected void reuse(Component source) {
+        this.source = source;
+        this.cancelled = false;
+        this.tick = TickClock.currentTick();
+    }
+
+}
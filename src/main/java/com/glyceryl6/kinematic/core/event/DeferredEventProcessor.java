@@ -0,0 +1,151 @@
+// DeferredEventProcessor.java - 延迟事件处理器
+package com.glyceryl6.kinematic.core.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 在服务端刻中统一处理延迟模式事件总线的排队事件
+ * <p>
+ * 总线在空队列上收到第一个事件时登记到待处理队列，每刻按预算（最多处理的事件数和微秒数）
+ * 依次处理，预算耗尽时剩余的事件留到下一刻，并且优先处理。
+ */
+public final class DeferredEventProcessor {
+
+    private static final Queue<DeferredEventQueue> PENDING_QUEUES = new ConcurrentLinkedQueue<>();
+    private static final LongAdder DROPPED = new LongAdder();
+    private static final LongAdder PROCESSED = new LongAdder();
+    private static final LongAdder CARRIED_OVER = new LongAdder();
+    private static final int TIME_CHECK_INTERVAL = 16;
+
+    private static volatile int maxEventsPerTick = 4096;
+    private static volatile long maxNanosPerTick = 2_000_000L;
+
+    private DeferredEventProcessor() {}
+
+    /**
+     * 设置每刻的处理预算
+     */
+    public static void setBudget(int maxEvents, long maxMicros) {
+        if (maxEvents <= 0 || maxMicros <= 0) {
+            throw new IllegalArgumentException("Budget must be positive: " + maxEvents + " events, " + maxMicros + "us");
+        }
+
+        maxEventsPerTick = maxEvents;
+        maxNanosPerTick = maxMicros * 1000L;
+    }
+
+    public static int getMaxEventsPerTick() {
+        return maxEventsPerTick;
+    }
+
+    public static long getMaxMicrosPerTick() {
+        return maxNanosPerTick / 1000L;
+    }
+
+    /**
+     * 按预算处理排队事件，每个服务端刻调用一次，返回处理的事件数
+     */
+    public static int drain() {
+        int maxEvents = maxEventsPerTick;
+        long deadline = System.nanoTime() + maxNanosPerTick;
+        List<DeferredEventQueue> carryOver = null;
+        int processed = 0;
+        DeferredEventQueue queue;
+        while (processed < maxEvents && (queue = PENDING_QUEUES.poll()) != null) {
+            queue.markUnscheduled();
+            while (processed < maxEvents && queue.processNext()) {
+                processed++;
+                if ((processed % TIME_CHECK_INTERVAL) == 0 && System.nanoTime() - deadline >= 0) {
+                    maxEvents = processed;
+                }
+            }
+
+            if (queue.size() > 0 && queue.markScheduled()) {
+                if (carryOver == null) {
+                    carryOver = new ArrayList<>();
+                }
+                carryOver.add(queue);
+            }
+        }
+
+        // 未处理完的队列排到下一刻的最前面
+        if (carryOver != null) {
+            List<DeferredEventQueue> remaining = new ArrayList<>(PENDING_QUEUES.size());
+            while ((queue = PENDING_QUEUES.poll()) != null) {
+                remaining.add(queue);
+            }
+            PENDING_QUEUES.addAll(carryOver);
+            PENDING_QUEUES.addAll(remaining);
+        }
+
+        long carried = 0;
+        for (DeferredEventQueue pending : PENDING_QUEUES) {
+            carried += pending.size();
+        }
+        CARRIED_OVER.add(carried);
+        PROCESSED.add(processed);
+        return processed;
+    }
+
+    /**
+     * 登记有待处理事件的队列
+     */
+    static void schedule(DeferredEventQueue queue) {
+        PENDING_QUEUES.add(queue);
+    }
+
+    static void recordDropped() {
+        DROPPED.increment();
+    }
+
+    /**
+     * 所有延迟总线中排队的事件总数（近似值）
+     */
+    public static long getQueueDepth() {
+        long depth = 0;
+        for (DeferredEventQueue queue : PENDING_QUEUES) {
+            depth += queue.size();
+        }
+
+        return depth;
+    }
+
+    public static int getPendingBusCount() {
+        return PENDING_QUEUES.size();
+    }
+
+    public static long getDroppedCount() {
+        return DROPPED.sum();
+    }
+
+    public static long getProcessedCount() {
+        return PROCESSED.sum();
+    }
+
+    /**
+     * 因预算耗尽而顺延到下一刻的事件累计数
+     */
+    public static long getCarriedOverCount() {
+        return CARRIED_OVER.sum();
+    }
+
+    /**
+     * 服务器停止时丢弃所有排队事件并清空计数
+     */
+    public static void reset() {
+        DeferredEventQueue queue;
+        while ((queue = PENDING_QUEUES.poll()) != null) {
+            queue.markUnscheduled();
+            queue.clear();
+        }
+
+        DROPPED.reset();
+        PROCESSED.reset();
+        CARRIED_OVER.reset();
+    }
+
+}
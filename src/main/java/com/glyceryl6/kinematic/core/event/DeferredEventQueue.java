@@ -0,0 +1,104 @@
+// DeferredEventQueue.java - 延迟事件队列
+package com.glyceryl6.kinematic.core.event;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 事件总线的延迟投递队列，任意线程都可以入队，由 {@link DeferredEventProcessor} 在服务端刻中处理
+ * <p>
+ * 队列在空时收到第一个事件后登记到处理器，已登记的队列不会重复登记。环形缓冲区在第一次入队时才分配。
+ */
+final class DeferredEventQueue {
+
+    private final int capacity;
+    private volatile MpscEventQueue queue;
+    private final Handler handler;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final LongAdder droppedEvents = new LongAdder();
+
+    DeferredEventQueue(int capacity, Handler handler) {
+        this.capacity = capacity;
+        this.handler = handler;
+    }
+
+    /**
+     * 入队，队列已满时丢弃并计数
+     */
+    void offer(ComponentEvent event, int target) {
+        if (!this.queue().offer(event.retain(), target)) {
+            this.droppedEvents.increment();
+            DeferredEventProcessor.recordDropped();
+        } else if (this.markScheduled()) {
+            DeferredEventProcessor.schedule(this);
+        }
+    }
+
+    /**
+     * 处理一个排队事件，队列为空时返回 false
+     */
+    boolean processNext() {
+        MpscEventQueue queue = this.queue;
+        ComponentEvent event = queue != null ? queue.poll() : null;
+        if (event == null) {
+            return false;
+        }
+
+        this.handler.handle(event, queue.polledTarget());
+        return true;
+    }
+
+    int size() {
+        MpscEventQueue queue = this.queue;
+        return queue != null ? queue.size() : 0;
+    }
+
+    int capacity() {
+        MpscEventQueue queue = this.queue;
+        return queue != null ? queue.capacity() : MpscEventQueue.roundCapacity(this.capacity);
+    }
+
+    long getDroppedCount() {
+        return this.droppedEvents.sum();
+    }
+
+    boolean markScheduled() {
+        return this.scheduled.compareAndSet(false, true);
+    }
+
+    void markUnscheduled() {
+        this.scheduled.set(false);
+    }
+
+    void clear() {
+        MpscEventQueue queue = this.queue;
+        if (queue != null) {
+            queue.clear();
+        }
+    }
+
+    private MpscEventQueue queue() {
+        MpscEventQueue queue = this.queue;
+        if (queue == null) {
+            synchronized (this) {
+                queue = this.queue;
+                if (queue == null) {
+                    this.queue = queue = new MpscEventQueue(this.capacity);
+                }
+            }
+        }
+
+        return queue;
+    }
+
+    /**
+     * 在服务端线程处理出队的事件
+     */
+    @FunctionalInterface
+    interface Handler {
+
+        void handle(ComponentEvent event, int target);
+
+    }
+
+}
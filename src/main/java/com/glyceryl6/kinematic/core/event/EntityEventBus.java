@@ -0,0 +1,164 @@
+// EntityEventBus.java - 实体事件总线视图
+package com.glyceryl6.kinematic.core.event;
+
+import com.glyceryl6.kinematic.core.architecture.Component;
+import com.glyceryl6.kinematic.core.architecture.EventBus;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link LevelEventBus} 上单个实体的轻量视图
+ * <p>
+ * 只保存实体自身的订阅表和可合并事件暂存区（都在第一次使用时才创建），可合并声明、延迟队列和异步模式
+ * 由所在维度的总线共享。发往本实体的事件（包括其他实体按 ID 发来的、广播和区域事件）都经过这里分发。
+ */
+public final class EntityEventBus implements EventBus {
+
+    private final LevelEventBus levelBus;
+    private final int entityId;
+    private final EventDispatcher dispatcher = new EventDispatcher();
+    private final EventCoalescer coalescer = new EventCoalescer();
+    private Runnable deliveryHook;
+    private Consumer<Component> wakeHook;
+
+    EntityEventBus(LevelEventBus levelBus, int entityId) {
+        this.levelBus = levelBus;
+        this.entityId = entityId;
+    }
+
+    @Override
+    public void registerComponent(Component component) {
+        this.dispatcher.registerComponent(component);
+    }
+
+    @Override
+    public void unregisterComponent(Component component) {
+        this.dispatcher.unregisterComponent(component);
+    }
+
+    @Override
+    public void post(ComponentEvent event) {
+        if (this.levelBus.isAsyncProcessing()) {
+            this.postDeferred(event);
+        } else {
+            this.deliver(event);
+        }
+    }
+
+    @Override
+    public void postDeferred(ComponentEvent event) {
+        this.levelBus.postDeferred(this.entityId, event);
+    }
+
+    @Override
+    public void subscribe(String eventType, EventListener listener) {
+        this.dispatcher.subscribe(eventType, listener);
+    }
+
+    @Override
+    public void unsubscribe(String eventType, EventListener listener) {
+        this.dispatcher.unsubscribe(eventType, listener);
+    }
+
+    @Override
+    public void subscribe(Class<? extends ComponentEvent> eventClass, EventListener listener) {
+        this.dispatcher.subscribe(eventClass, listener);
+    }
+
+    @Override
+    public void unsubscribe(Class<? extends ComponentEvent> eventClass, EventListener listener) {
+        this.dispatcher.unsubscribe(eventClass, listener);
+    }
+
+    @Override
+    public int getListenerCount(String eventType) {
+        return this.dispatcher.getListenerCount(eventType);
+    }
+
+    @Override
+    public int getListenerCount(Class<? extends ComponentEvent> eventClass) {
+        return this.dispatcher.getListenerCount(eventClass);
+    }
+
+    @Override
+    public boolean hasListeners(String eventType, Class<? extends ComponentEvent> eventClass) {
+        return this.dispatcher.hasListeners(eventType, eventClass);
+    }
+
+    @Override
+    public void setCoalescing(String eventType, Function<? super ComponentEvent, ?> keyFunction) {
+        this.levelBus.setCoalescing(eventType, keyFunction);
+    }
+
+    @Override
+    public boolean isCoalescing(String eventType) {
+        return this.levelBus.isCoalescing(eventType);
+    }
+
+    @Override
+    public void flushCoalesced() {
+        this.coalescer.flush(this.dispatcher::dispatch);
+    }
+
+    /**
+     * 投递给其他实体
+     */
+    public boolean postTo(int targetEntityId, ComponentEvent event) {
+        return this.levelBus.post(targetEntityId, event);
+    }
+
+    /**
+     * 设置事件送达本实体时的回调，在投递线程上调用，{@code null} 表示不回调
+     */
+    public void setDeliveryHook(Runnable deliveryHook) {
+        this.deliveryHook = deliveryHook;
+    }
+
+    /**
+     * 设置事件送达本实体时唤醒监听组件的回调，对每个会收到该事件的监听器传入其所属组件（无法确定时为 null），
+     * 在投递线程上调用，{@code null} 表示不回调
+     */
+    public void setWakeHook(Consumer<Component> wakeHook) {
+        this.wakeHook = wakeHook;
+    }
+
+    public int getEntityId() {
+        return this.entityId;
+    }
+
+    public LevelEventBus getLevelBus() {
+        return this.levelBus;
+    }
+
+    /**
+     * 实体离开时从维度总线注销并释放订阅表
+     */
+    public void close() {
+        this.levelBus.removeView(this);
+        this.dispatcher.clear();
+        this.coalescer.clear();
+    }
+
+    /**
+     * 同步投递：可合并事件进入暂存区，其余事件立即分发
+     */
+    void deliver(ComponentEvent event) {
+        Runnable hook = this.deliveryHook;
+        if (hook != null) {
+            hook.run();
+        }
+        Consumer<Component> wakeHook = this.wakeHook;
+        if (wakeHook != null) {
+            this.dispatcher.forEachOwner(event, wakeHook);
+        }
+
+        Function<? super ComponentEvent, ?> keyFunction = this.levelBus.getCoalescingKey(event.getEventType());
+        if (keyFunction != null) {
+            this.coalescer.offer(event.getEventType(), keyFunction, event);
+        } else {
+            this.dispatcher.dispatch(event);
+        }
+    }
+
+}
@@ -0,0 +1,116 @@
+// EventCoalescer.java - 可合并事件暂存
+package com.glyceryl6.kinematic.core.event;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 可合并事件的暂存区，按事件类型和键保留最后一个事件并保持首次出现的顺序
+ * <p>
+ * 暂存表在第一次暂存时才创建。投递时交换双缓冲，投递期间新产生的可合并事件留到下一次投递。
+ * 只允许在服务端线程访问。
+ */
+final class EventCoalescer {
+
+    private Map<String, CoalescingSlot> slots;
+    private List<CoalescingSlot> pendingSlots;
+    private List<CoalescingSlot> flushingSlots;
+    private boolean flushing;
+    private long coalescablePosts;
+    private long coalescedDeliveries;
+
+    /**
+     * 暂存事件，事件在放入前会被 {@link ComponentEvent#retain()}
+     */
+    void offer(String eventType, Function<? super ComponentEvent, ?> keyFunction, ComponentEvent event) {
+        if (slots == null) {
+            slots = new HashMap<>(4);
+            pendingSlots = new ArrayList<>(2);
+            flushingSlots = new ArrayList<>(2);
+        }
+
+        coalescablePosts++;
+        CoalescingSlot slot = slots.computeIfAbsent(eventType, k -> new CoalescingSlot(keyFunction));
+        if (slot.offer(event.retain())) {
+            pendingSlots.add(slot);
+        }
+    }
+
+    /**
+     * 投递所有暂存的事件
+     */
+    void flush(Consumer<ComponentEvent> dispatcher) {
+        if (pendingSlots == null || pendingSlots.isEmpty() || flushing) {
+            return;
+        }
+
+        List<CoalescingSlot> flushed = pendingSlots;
+        pendingSlots = flushingSlots;
+        flushingSlots = flushed;
+        flushing = true;
+        try {
+            for (int i = 0, size = flushed.size(); i < size; i++) {
+                Map<Object, ComponentEvent> events = flushed.get(i).swap();
+                for (ComponentEvent event : events.values()) {
+                    coalescedDeliveries++;
+                    dispatcher.accept(event);
+                }
+                events.clear();
+            }
+        } finally {
+            flushed.clear();
+            flushing = false;
+        }
+    }
+
+    long getCoalescablePostCount() {
+        return coalescablePosts;
+    }
+
+    long getCoalescedDeliveryCount() {
+        return coalescedDeliveries;
+    }
+
+    void clear() {
+        slots = null;
+        pendingSlots = null;
+        flushingSlots = null;
+    }
+
+    private static final class CoalescingSlot {
+
+        private final Function<? super ComponentEvent, ?> keyFunction;
+        private Map<Object, ComponentEvent> pending = new LinkedHashMap<>();
+        private Map<Object, ComponentEvent> delivering = new LinkedHashMap<>();
+
+        private CoalescingSlot(Function<? super ComponentEvent, ?> keyFunction) {
+            this.keyFunction = keyFunction;
+        }
+
+        /**
+         * 暂存事件，暂存区由空变为非空时返回 true
+         */
+        private boolean offer(ComponentEvent event) {
+            boolean wasEmpty = this.pending.isEmpty();
+            this.pending.put(this.keyFunction.apply(event), event);
+            return wasEmpty;
+        }
+
+        /**
+         * 取出暂存的事件，调用方投递后负责清空返回的映射
+         */
+        private Map<Object, ComponentEvent> swap() {
+            Map<Object, ComponentEvent> events = this.pending;
+            this.pending = this.delivering;
+            this.delivering = events;
+            return events;
+        }
+
+    }
+
+}
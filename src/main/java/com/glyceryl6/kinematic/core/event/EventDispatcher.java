@@ -0,0 +1,259 @@
+// EventDispatcher.java - 事件分发表
+package com.glyceryl6.kinematic.core.event;
+
+import com.glyceryl6.kinematic.core.architecture.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 一组订阅关系及其预编译的分发表，供各事件总线复用
+ * <p>
+ * 监听器可以按事件类型字符串或按事件类订阅，按类订阅时同样会收到子类事件。每个事件类型字符串和事件类在首次投递时
+ * 解析为扁平的监听器数组并缓存，订阅关系变化时失效。所有表都在第一次订阅时才创建，没有订阅者的实例只占一个对象头。
+ * 只允许在服务端线程访问。
+ */
+final class EventDispatcher {
+
+    static final EventListener[] NO_LISTENERS = new EventListener[0];
+
+    private Map<String, List<EventListener>> listeners;
+    private Map<Class<? extends ComponentEvent>, List<EventListener>> classListeners;
+    private List<ComponentListener> componentListeners;
+    private Map<String, EventListener[]> typeDispatch;
+    private Map<Class<?>, EventListener[]> classDispatch;
+
+    void registerComponent(Component component) {
+        Set<Class<? extends ComponentEvent>> subscribedEvents = component.getSubscribedEvents();
+        if (!subscribedEvents.isEmpty()) {
+            if (componentListeners == null) {
+                componentListeners = new ArrayList<>(2);
+            }
+            componentListeners.add(new ComponentListener(component, subscribedEvents));
+            invalidateClasses();
+        }
+    }
+
+    void unregisterComponent(Component component) {
+        // 按引用匹配，同一类的多个组件互不影响
+        if (componentListeners != null && componentListeners.removeIf(listener -> listener.component == component)) {
+            invalidateClasses();
+        }
+    }
+
+    void subscribe(String eventType, EventListener listener) {
+        if (listeners == null) {
+            listeners = new HashMap<>(4);
+        }
+        listeners.computeIfAbsent(eventType, k -> new ArrayList<>(2)).add(listener);
+        if (typeDispatch != null) {
+            typeDispatch.remove(eventType);
+        }
+    }
+
+    void unsubscribe(String eventType, EventListener listener) {
+        List<EventListener> eventListeners = listeners != null ? listeners.get(eventType) : null;
+        if (eventListeners != null && eventListeners.remove(listener)) {
+            if (eventListeners.isEmpty()) {
+                listeners.remove(eventType);
+            }
+            if (typeDispatch != null) {
+                typeDispatch.remove(eventType);
+            }
+        }
+    }
+
+    void subscribe(Class<? extends ComponentEvent> eventClass, EventListener listener) {
+        if (classListeners == null) {
+            classListeners = new HashMap<>(4);
+        }
+        classListeners.computeIfAbsent(eventClass, k -> new ArrayList<>(2)).add(listener);
+        invalidateClasses();
+    }
+
+    void unsubscribe(Class<? extends ComponentEvent> eventClass, EventListener listener) {
+        List<EventListener> eventListeners = classListeners != null ? classListeners.get(eventClass) : null;
+        if (eventListeners != null && eventListeners.remove(listener)) {
+            if (eventListeners.isEmpty()) {
+                classListeners.remove(eventClass);
+            }
+            invalidateClasses();
+        }
+    }
+
+    int getListenerCount(String eventType) {
+        List<EventListener> eventListeners = listeners != null ? listeners.get(eventType) : null;
+        return eventListeners != null ? eventListeners.size() : 0;
+    }
+
+    int getListenerCount(Class<? extends ComponentEvent> eventClass) {
+        return resolveClass(eventClass).length;
+    }
+
+    boolean hasListeners(String eventType, Class<? extends ComponentEvent> eventClass) {
+        return resolveType(eventType).length > 0 || resolveClass(eventClass).length > 0;
+    }
+
+    /**
+     * 是否没有任何订阅
+     */
+    boolean isEmpty() {
+        return (listeners == null || listeners.isEmpty())
+                && (classListeners == null || classListeners.isEmpty())
+                && (componentListeners == null || componentListeners.isEmpty());
+    }
+
+    /**
+     * 先通知按类型字符串订阅的监听器，再通知按事件类订阅的监听器和组件，事件被取消后停止
+     */
+    void dispatch(ComponentEvent event) {
+        EventListener[] typeTargets = resolveType(event.getEventType());
+        EventListener[] classTargets = resolveClass(event.getClass());
+        EventInstrumentation instrumentation = EventInstrumentation.current;
+        if (instrumentation != null) {
+            instrumentation.dispatch(typeTargets, classTargets, event);
+            return;
+        }
+
+        dispatch(typeTargets, event);
+        dispatch(classTargets, event);
+    }
+
+    /**
+     * 对会收到该事件的每个监听器回调其所属组件（可能重复，无法确定时为 null），不分发事件
+     */
+    void forEachOwner(ComponentEvent event, Consumer<Component> action) {
+        for (EventListener listener : resolveType(event.getEventType())) {
+            action.accept(listener.getOwner());
+        }
+        for (EventListener listener : resolveClass(event.getClass())) {
+            action.accept(listener.getOwner());
+        }
+    }
+
+    void clear() {
+        listeners = null;
+        classListeners = null;
+        componentListeners = null;
+        typeDispatch = null;
+        classDispatch = null;
+    }
+
+    private static void dispatch(EventListener[] targets, ComponentEvent event) {
+        for (EventListener listener : targets) {
+            if (event.isCancelled()) {
+                return;
+            }
+            listener.onEvent(event);
+        }
+    }
+
+    private EventListener[] resolveType(String eventType) {
+        if (listeners == null) {
+            return NO_LISTENERS;
+        }
+
+        if (typeDispatch == null) {
+            typeDispatch = new HashMap<>(4);
+        }
+        EventListener[] resolved = typeDispatch.get(eventType);
+        if (resolved == null) {
+            List<EventListener> eventListeners = listeners.get(eventType);
+            resolved = eventListeners == null || eventListeners.isEmpty()
+                    ? NO_LISTENERS : eventListeners.toArray(NO_LISTENERS);
+            typeDispatch.put(eventType, resolved);
+        }
+
+        return resolved;
+    }
+
+    private EventListener[] resolveClass(Class<?> eventClass) {
+        if (classListeners == null && componentListeners == null) {
+            return NO_LISTENERS;
+        }
+
+        if (classDispatch == null) {
+            classDispatch = new HashMap<>(4);
+        }
+        EventListener[] resolved = classDispatch.get(eventClass);
+        if (resolved == null) {
+            resolved = compileClass(eventClass);
+            classDispatch.put(eventClass, resolved);
+        }
+
+        return resolved;
+    }
+
+    /**
+     * 按事件类从具体到抽象收集监听器，最后追加声明了该事件的组件
+     */
+    private EventListener[] compileClass(Class<?> eventClass) {
+        List<EventListener> resolved = new ArrayList<>();
+        if (classListeners != null) {
+            for (Class<?> type = eventClass; type != null && ComponentEvent.class.isAssignableFrom(type); type = type.getSuperclass()) {
+                List<EventListener> eventListeners = classListeners.get(type);
+                if (eventListeners != null) {
+                    resolved.addAll(eventListeners);
+                }
+            }
+        }
+
+        if (componentListeners != null) {
+            for (ComponentListener listener : componentListeners) {
+                if (listener.accepts(eventClass)) {
+                    resolved.add(listener);
+                }
+            }
+        }
+
+        return resolved.isEmpty() ? NO_LISTENERS : resolved.toArray(NO_LISTENERS);
+    }
+
+    private void invalidateClasses() {
+        if (classDispatch != null) {
+            classDispatch.clear();
+        }
+    }
+
+    /**
+     * 将组件适配为监听器，投递时检查组件是否启用
+     */
+    static final class ComponentListener implements EventListener {
+
+        private final Component component;
+        private final Class<?>[] eventClasses;
+
+        private ComponentListener(Component component, Set<Class<? extends ComponentEvent>> eventClasses) {
+            this.component = component;
+            this.eventClasses = eventClasses.toArray(new Class<?>[0]);
+        }
+
+        @Override
+        public Component getOwner() {
+            return this.component;
+        }
+
+        private boolean accepts(Class<?> eventClass) {
+            for (Class<?> type : this.eventClasses) {
+                if (type.isAssignableFrom(eventClass)) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        @Override
+        public void onEvent(ComponentEvent event) {
+            if (this.component.isEnabled()) {
+                this.component.onEvent(event);
+            }
+        }
+
+    }
+
+}
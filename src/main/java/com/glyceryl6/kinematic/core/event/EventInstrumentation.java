@@ -0,0 +1,283 @@
+// EventInstrumentation.java - 事件总线统计
+package com.glyceryl6.kinematic.core.event;
+
+import com.glyceryl6.kinematic.core.architecture.Component;
+import com.glyceryl6.kinematic.core.metrics.HistogramSnapshot;
+import com.glyceryl6.kinematic.core.metrics.LatencyHistogram;
+import com.glyceryl6.kinematic.core.tick.TickClock;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 可选的事件总线统计：按事件类型统计投递次数、扇出和取消率，按监听器统计耗时并标记慢监听器
+ * <p>
+ * 未开启时分发路径上只多一次静态字段的空值判断。监听器按类归并统计：声明了所属组件的监听器
+ * （组件监听器和 {@link EventListener#owned} 创建的监听器）按组件类归并；其余方法引用和 lambda
+ * 按其生成类归并，只能通过类名前缀推测声明它的类。所有生物的同一个监听器共用一个直方图。
+ * 设置系统属性 {@code kinematic.debug.eventInstrumentation=<微秒>} 可在启动时以该慢监听器阈值开启。
+ */
+public final class EventInstrumentation {
+
+    static volatile EventInstrumentation current;
+
+    static {
+        Long thresholdMicros = Long.getLong("kinematic.debug.eventInstrumentation");
+        if (thresholdMicros != null) {
+            current = new EventInstrumentation(thresholdMicros * 1000L);
+        }
+    }
+
+    private final Map<String, EventTypeStats> eventTypes = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ListenerStats> listeners = new ConcurrentHashMap<>();
+    private final long enabledTick = TickClock.currentTick();
+    private final long slowThresholdNanos;
+
+    private EventInstrumentation(long slowThresholdNanos) {
+        this.slowThresholdNanos = slowThresholdNanos;
+    }
+
+    /**
+     * 开启统计，单次调用耗时超过阈值的监听器会被标记
+     */
+    public static EventInstrumentation enable(long slowThresholdMicros) {
+        EventInstrumentation instrumentation = new EventInstrumentation(slowThresholdMicros * 1000L);
+        current = instrumentation;
+        return instrumentation;
+    }
+
+    public static void disable() {
+        current = null;
+    }
+
+    /**
+     * 获取当前的统计，未开启时返回 null
+     */
+    public static EventInstrumentation getCurrent() {
+        return current;
+    }
+
+    /**
+     * 带统计的分发，行为与 {@link EventDispatcher#dispatch} 一致
+     */
+    void dispatch(EventListener[] typeTargets, EventListener[] classTargets, ComponentEvent event) {
+        boolean cancelledBefore = event.isCancelled();
+        int fanOut = this.invoke(typeTargets, event);
+        fanOut += this.invoke(classTargets, event);
+        this.eventTypes.computeIfAbsent(event.getEventType(), EventTypeStats::new)
+                .record(fanOut, !cancelledBefore && event.isCancelled());
+    }
+
+    private int invoke(EventListener[] targets, ComponentEvent event) {
+        int invoked = 0;
+        for (EventListener listener : targets) {
+            if (event.isCancelled()) {
+                break;
+            }
+
+            long start = System.nanoTime();
+            try {
+                listener.onEvent(event);
+            } finally {
+                this.recordListener(listener, System.nanoTime() - start);
+            }
+            invoked++;
+        }
+
+        return invoked;
+    }
+
+    private void recordListener(EventListener listener, long nanos) {
+        Component owner = listener.getOwner();
+        ListenerStats stats = owner != null
+                ? this.listeners.computeIfAbsent(owner.getClass(), ListenerStats::forOwner)
+                : this.listeners.computeIfAbsent(listener.getClass(), ListenerStats::forListener);
+        stats.histogram.record(nanos);
+        stats.totalNanos.add(nanos);
+        if (nanos > this.slowThresholdNanos) {
+            stats.slowCalls.increment();
+            if (!stats.flagged) {
+                stats.flagged = true;
+                System.err.println("Slow event listener: " + stats.getOwner() + " took " + nanos / 1000L + "us");
+            }
+        }
+    }
+
+    /**
+     * 按投递次数降序排列的事件类型统计
+     */
+    public List<EventTypeStats> getEventTypeStats() {
+        List<EventTypeStats> stats = new ArrayList<>(this.eventTypes.values());
+        stats.sort(Comparator.comparingLong(EventTypeStats::getPostCount).reversed());
+        return Collections.unmodifiableList(stats);
+    }
+
+    /**
+     * 按总耗时降序排列的监听器统计
+     */
+    public List<ListenerStats> getListenerStats() {
+        List<ListenerStats> stats = new ArrayList<>(this.listeners.values());
+        stats.sort(Comparator.comparingLong(ListenerStats::getTotalNanos).reversed());
+        return Collections.unmodifiableList(stats);
+    }
+
+    /**
+     * 被标记为慢监听器的统计
+     */
+    public List<ListenerStats> getSlowListeners() {
+        return this.getListenerStats().stream().filter(ListenerStats::isFlagged).toList();
+    }
+
+    /**
+     * 开启以来经过的服务端刻数，至少为 1
+     */
+    public long getElapsedTicks() {
+        return Math.max(1L, TickClock.currentTick() - this.enabledTick);
+    }
+
+    public long getSlowThresholdMicros() {
+        return this.slowThresholdNanos / 1000L;
+    }
+
+    /**
+     * 单个事件类型的统计
+     */
+    public final class EventTypeStats {
+
+        private final String eventType;
+        private final LongAdder posts = new LongAdder();
+        private final LongAdder totalFanOut = new LongAdder();
+        private final AtomicLong peakFanOut = new AtomicLong();
+        private final LongAdder cancellations = new LongAdder();
+
+        private EventTypeStats(String eventType) {
+            this.eventType = eventType;
+        }
+
+        private void record(int fanOut, boolean cancelled) {
+            this.posts.increment();
+            this.totalFanOut.add(fanOut);
+            if (fanOut > this.peakFanOut.get()) {
+                this.peakFanOut.accumulateAndGet(fanOut, Math::max);
+            }
+            if (cancelled) {
+                this.cancellations.increment();
+            }
+        }
+
+        public String getEventType() {
+            return this.eventType;
+        }
+
+        public long getPostCount() {
+            return this.posts.sum();
+        }
+
+        /**
+         * 每刻平均投递次数
+         */
+        public double getPostsPerTick() {
+            return (double) this.getPostCount() / getElapsedTicks();
+        }
+
+        public double getAverageFanOut() {
+            long posts = this.getPostCount();
+            return posts > 0 ? (double) this.totalFanOut.sum() / posts : 0.0;
+        }
+
+        public long getPeakFanOut() {
+            return this.peakFanOut.get();
+        }
+
+        public double getCancellationRate() {
+            long posts = this.getPostCount();
+            return posts > 0 ? (double) this.cancellations.sum() / posts : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: %.2f posts/tick, fan-out avg %.2f peak %d, cancelled %.1f%%",
+                    this.eventType, this.getPostsPerTick(), this.getAverageFanOut(), this.getPeakFanOut(),
+                    this.getCancellationRate() * 100.0);
+        }
+
+    }
+
+    /**
+     * 单类监听器的统计
+     */
+    public static final class ListenerStats {
+
+        private final Class<?> listenerClass;
+        private final String owner;
+        private final LatencyHistogram histogram = new LatencyHistogram(1);
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder slowCalls = new LongAdder();
+        private volatile boolean flagged;
+
+        private ListenerStats(Class<?> listenerClass, String owner) {
+            this.listenerClass = listenerClass;
+            this.owner = owner;
+        }
+
+        /**
+         * 声明了所属组件的监听器，按组件类统计
+         */
+        private static ListenerStats forOwner(Class<?> ownerClass) {
+            return new ListenerStats(ownerClass, ownerClass.getName());
+        }
+
+        /**
+         * 没有所属组件的监听器，按监听器类统计
+         */
+        private static ListenerStats forListener(Class<?> listenerClass) {
+            return new ListenerStats(listenerClass, ownerOf(listenerClass));
+        }
+
+        /**
+         * lambda 和方法引用的生成类名形如 {@code Owner$$Lambda$12/0x...}，取前缀作为所属类
+         */
+        private static String ownerOf(Class<?> listenerClass) {
+            String name = listenerClass.getName();
+            int lambda = name.indexOf("$$Lambda");
+            return lambda >= 0 ? name.substring(0, lambda) + " (lambda)" : name;
+        }
+
+        public Class<?> getListenerClass() {
+            return this.listenerClass;
+        }
+
+        public String getOwner() {
+            return this.owner;
+        }
+
+        public HistogramSnapshot snapshot() {
+            return this.histogram.snapshot();
+        }
+
+        public long getTotalNanos() {
+            return this.totalNanos.sum();
+        }
+
+        public long getSlowCallCount() {
+            return this.slowCalls.sum();
+        }
+
+        public boolean isFlagged() {
+            return this.flagged;
+        }
+
+        @Override
+        public String toString() {
+            return this.owner + ": " + this.histogram.snapshot() + ", slow " + this.getSlowCallCount();
+        }
+
+    }
+
+}
@@ -1,8 +1,34 @@
 package com.glyceryl6.kinematic.core.event;// EventListener.java - 事件监听器接口
 
+import com.glyceryl6.kinematic.core.architecture.Component;
+
 @FunctionalInterface
 public interface EventListener {
 
     void onEvent(ComponentEvent event);
 
-}
\ No newline at end of file
+    /**
+     * 监听器所属的组件，事件送达时只唤醒该组件；返回 null 时无法确定，唤醒容器中的全部组件
+     */
+    default Component getOwner() {
+        return null;
+    }
+
+    /**
+     * 创建属于指定组件的监听器，订阅和取消订阅必须使用同一个返回的实例
+     */
+    static EventListener owned(Component owner, EventListener listener) {
+        return new EventListener() {
+            @Override
+            public void onEvent(ComponentEvent event) {
+                listener.onEvent(event);
+            }
+
+            @Override
+            public Component getOwner() {
+                return owner;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,225 @@
+// LevelEventBus.java - 维度事件总线
+package com.glyceryl6.kinematic.core.event;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 维度级共享事件总线，按目标实体 ID、全体广播或空间区域路由事件
+ * <p>
+ * 每个生物通过 {@link EntityEventBus} 视图使用总线，视图只保存自身的订阅表，
+ * 可合并事件的声明和延迟队列由整个维度共享。区域投递通过原版实体分区查询目标生物。
+ * 除 {@link #postDeferred} 外只允许在服务端线程调用。
+ */
+public final class LevelEventBus {
+
+    private static final Map<ResourceKey<Level>, LevelEventBus> LEVEL_BUSES = new ConcurrentHashMap<>();
+    private static final int BROADCAST_TARGET = Integer.MIN_VALUE;
+    private static final int DEFAULT_QUEUE_CAPACITY = 4096;
+    private static final EntityEventBus[] NO_VIEWS = new EntityEventBus[0];
+
+    private final ServerLevel level;
+    private final Int2ObjectOpenHashMap<EntityEventBus> views = new Int2ObjectOpenHashMap<>();
+    private EntityEventBus[] viewSnapshot = NO_VIEWS;
+    private final EventDispatcher levelListeners = new EventDispatcher();
+    private final Map<String, Function<? super ComponentEvent, ?>> coalescing = new ConcurrentHashMap<>();
+    private final DeferredEventQueue eventQueue = new DeferredEventQueue(DEFAULT_QUEUE_CAPACITY, this::route);
+    private volatile boolean asyncProcessing = false;
+
+    private LevelEventBus(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static LevelEventBus forLevel(ServerLevel level) {
+        return LEVEL_BUSES.computeIfAbsent(level.dimension(), dimension -> new LevelEventBus(level));
+    }
+
+    /**
+     * 服务器停止时丢弃所有维度总线
+     */
+    public static void clearAll() {
+        LEVEL_BUSES.values().forEach(bus -> bus.eventQueue.clear());
+        LEVEL_BUSES.clear();
+    }
+
+    /**
+     * 为生物创建事件总线视图
+     */
+    public EntityEventBus createView(Mob mob) {
+        EntityEventBus view = new EntityEventBus(this, mob.getId());
+        this.views.put(view.getEntityId(), view);
+        this.viewSnapshot = null;
+        return view;
+    }
+
+    void removeView(EntityEventBus view) {
+        if (this.views.get(view.getEntityId()) == view) {
+            this.views.remove(view.getEntityId());
+            this.viewSnapshot = null;
+        }
+    }
+
+    /**
+     * 获取实体的事件总线视图，实体没有组件容器时返回 null
+     */
+    public EntityEventBus getView(int entityId) {
+        return this.views.get(entityId);
+    }
+
+    /**
+     * 投递给指定实体，目标不存在时返回 false
+     */
+    public boolean post(int targetEntityId, ComponentEvent event) {
+        EntityEventBus view = this.views.get(targetEntityId);
+        if (view == null) {
+            return false;
+        }
+
+        view.post(event);
+        return true;
+    }
+
+    /**
+     * 投递给维度监听器和维度内所有实体，事件被取消后停止投递
+     */
+    public void broadcast(ComponentEvent event) {
+        if (this.asyncProcessing) {
+            this.eventQueue.offer(event, BROADCAST_TARGET);
+        } else {
+            this.deliverBroadcast(event);
+        }
+    }
+
+    /**
+     * 投递给维度监听器和区域内的所有实体，返回收到事件的实体数
+     */
+    public int postInRegion(AABB region, ComponentEvent event) {
+        this.levelListeners.dispatch(event);
+        int delivered = 0;
+        for (Mob mob : this.level.getEntitiesOfClass(Mob.class, region)) {
+            if (event.isCancelled()) {
+                break;
+            }
+
+            EntityEventBus view = this.views.get(mob.getId());
+            if (view != null) {
+                view.post(event);
+                delivered++;
+            }
+        }
+
+        return delivered;
+    }
+
+    /**
+     * 放入延迟队列，在之后的服务端刻中投递给指定实体，可以从任意线程调用
+     */
+    public void postDeferred(int targetEntityId, ComponentEvent event) {
+        this.eventQueue.offer(event, targetEntityId);
+    }
+
+    /**
+     * 放入延迟队列，在之后的服务端刻中广播，可以从任意线程调用
+     */
+    public void broadcastDeferred(ComponentEvent event) {
+        this.eventQueue.offer(event, BROADCAST_TARGET);
+    }
+
+    /**
+     * 订阅维度内的广播和区域事件
+     */
+    public void subscribe(String eventType, EventListener listener) {
+        this.levelListeners.subscribe(eventType, listener);
+    }
+
+    public void unsubscribe(String eventType, EventListener listener) {
+        this.levelListeners.unsubscribe(eventType, listener);
+    }
+
+    public void subscribe(Class<? extends ComponentEvent> eventClass, EventListener listener) {
+        this.levelListeners.subscribe(eventClass, listener);
+    }
+
+    public void unsubscribe(Class<? extends ComponentEvent> eventClass, EventListener listener) {
+        this.levelListeners.unsubscribe(eventClass, listener);
+    }
+
+    /**
+     * 将事件类型声明为可合并，对维度内所有实体视图生效
+     */
+    public void setCoalescing(String eventType, Function<? super ComponentEvent, ?> keyFunction) {
+        this.coalescing.putIfAbsent(eventType, keyFunction);
+    }
+
+    public boolean isCoalescing(String eventType) {
+        return this.coalescing.containsKey(eventType);
+    }
+
+    Function<? super ComponentEvent, ?> getCoalescingKey(String eventType) {
+        return this.coalescing.get(eventType);
+    }
+
+    /**
+     * 设置延迟模式，开启后实体视图上的投递都进入维度延迟队列
+     */
+    public void setAsyncProcessing(boolean async) {
+        this.asyncProcessing = async;
+    }
+
+    public boolean isAsyncProcessing() {
+        return this.asyncProcessing;
+    }
+
+    public int getViewCount() {
+        return this.views.size();
+    }
+
+    public int getQueuedEventCount() {
+        return this.eventQueue.size();
+    }
+
+    public long getDroppedEventCount() {
+        return this.eventQueue.getDroppedCount();
+    }
+
+    public ServerLevel getLevel() {
+        return this.level;
+    }
+
+    private void route(ComponentEvent event, int target) {
+        if (target == BROADCAST_TARGET) {
+            this.deliverBroadcast(event);
+        } else {
+            EntityEventBus view = this.views.get(target);
+            if (view != null) {
+                view.deliver(event);
+            }
+        }
+    }
+
+    private void deliverBroadcast(ComponentEvent event) {
+        this.levelListeners.dispatch(event);
+        // 投递期间可能有实体加入或离开，遍历快照
+        EntityEventBus[] snapshot = this.viewSnapshot;
+        if (snapshot == null) {
+            snapshot = this.views.values().toArray(NO_VIEWS);
+            this.viewSnapshot = snapshot;
+        }
+
+        for (EntityEventBus view : snapshot) {
+            if (event.isCancelled()) {
+                return;
+            }
+            view.deliver(event);
+        }
+    }
+
+}
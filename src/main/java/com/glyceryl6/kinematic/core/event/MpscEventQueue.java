@@ -0,0 +1,122 @@
+// MpscEventQueue.java - 多生产者单消费者事件队列
+package com.glyceryl6.kinematic.core.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 有界多生产者单消费者环形队列（每个槽位带序号）
+ * <p>
+ * 任意线程都可以入队，只有服务端线程出队。槽位序号等于生产者位置时可写，等于位置加一时可读，
+ * 出队后序号推进一圈；入队和出队都不加锁、不分配。队列满时入队失败，由调用方计入丢弃。
+ * 每个事件附带一个 int 路由目标（例如实体 ID），出队后通过 {@link #polledTarget()} 读取。
+ */
+final class MpscEventQueue {
+
+    private final ComponentEvent[] buffer;
+    private final int[] targets;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private int polledTarget;
+
+    MpscEventQueue(int capacity) {
+        int size = roundCapacity(capacity);
+        this.buffer = new ComponentEvent[size];
+        this.targets = new int[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            this.sequences.set(i, i);
+        }
+    }
+
+    /**
+     * 实际容量：不小于请求容量的 2 的幂
+     */
+    static int roundCapacity(int capacity) {
+        return capacity <= 2 ? 2 : Integer.highestOneBit(capacity - 1) << 1;
+    }
+
+    /**
+     * 入队，队列已满时返回 false
+     */
+    boolean offer(ComponentEvent event) {
+        return this.offer(event, 0);
+    }
+
+    /**
+     * 带路由目标入队，队列已满时返回 false
+     */
+    boolean offer(ComponentEvent event, int target) {
+        long position = this.tail.get();
+        int index;
+        while (true) {
+            index = (int) (position & this.mask);
+            long difference = this.sequences.get(index) - position;
+            if (difference == 0) {
+                if (this.tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+                position = this.tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = this.tail.get();
+            }
+        }
+
+        this.buffer[index] = event;
+        this.targets[index] = target;
+        this.sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * 出队，只允许消费者线程调用，队列为空时返回 null
+     */
+    ComponentEvent poll() {
+        long position = this.head.get();
+        int index = (int) (position & this.mask);
+        if (this.sequences.get(index) != position + 1) {
+            return null;
+        }
+
+        ComponentEvent event = this.buffer[index];
+        this.buffer[index] = null;
+        this.polledTarget = this.targets[index];
+        this.sequences.lazySet(index, position + this.mask + 1);
+        this.head.lazySet(position + 1);
+        return event;
+    }
+
+    /**
+     * 最近一次出队事件的路由目标，只允许消费者线程调用
+     */
+    int polledTarget() {
+        return this.polledTarget;
+    }
+
+    /**
+     * 当前排队的事件数（近似值）
+     */
+    int size() {
+        long size = this.tail.get() - this.head.get();
+        return (int) Math.max(0, Math.min(size, this.buffer.length));
+    }
+
+    int capacity() {
+        return this.buffer.length;
+    }
+
+    /**
+     * 丢弃所有排队事件，只允许消费者线程调用
+     */
+    void clear() {
+        while (this.poll() != null) {
+            // 逐个出队以保持槽位序号一致
+        }
+    }
+
+}
@@ -3,68 +3,130 @@ package com.glyceryl6.kinematic.core.event;
 import com.glyceryl6.kinematic.core.architecture.Component;
 import com.glyceryl6.kinematic.core.architecture.EventBus;
 
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
 
 /**
  * 简单事件总线实现，支持同步和异步事件处理
+ * <p>
+ * 监听器可以按事件类型字符串或按事件类订阅，按类订阅时同样会收到子类事件。组件只会收到
+ * {@link Component#getSubscribedEvents()} 声明的事件。每个事件类型字符串和事件类在首次投递时
+ * 解析为扁平的监听器数组并缓存，订阅关系变化时失效，没有监听器的事件只需两次哈希查找。
+ * <p>
+ * 延迟模式下事件进入有界的多生产者单消费者队列，由 {@link DeferredEventProcessor} 在服务端刻中按预算处理，
+ * 任意线程都可以投递；队列已满时事件被丢弃并计数。
+ * <p>
+ * 声明为可合并的事件类型在投递时按键暂存，同一键只保留最后一个事件，在 {@link #flushCoalesced()}
+ * （容器更新组件之前）统一投递一次。
+ * <p>
+ * 服务端的生物容器使用 {@link LevelEventBus} 的实体视图，这里的独立实现用于客户端和脱离世界的场景。
  */
 public class SimpleEventBus implements EventBus {
 
-    private final Map<String, List<EventListener>> listeners = new ConcurrentHashMap<>();
-    private final Map<Class<? extends Component>, Component> componentListeners = new ConcurrentHashMap<>();
-    private final List<ComponentEvent> eventQueue = new CopyOnWriteArrayList<>();
-    private boolean asyncProcessing = false;
+    private static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private final EventDispatcher dispatcher = new EventDispatcher();
+    private final EventCoalescer coalescer = new EventCoalescer();
+    private final Map<String, Function<? super ComponentEvent, ?>> coalescing = new ConcurrentHashMap<>();
+    private final DeferredEventQueue eventQueue;
+    private volatile boolean asyncProcessing = false;
+
+    public SimpleEventBus() {
+        this(DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public SimpleEventBus(int queueCapacity) {
+        this.eventQueue = new DeferredEventQueue(queueCapacity, (event, target) -> dispatcher.dispatch(event));
+    }
 
     @Override
     public void registerComponent(Component component) {
-        componentListeners.put(component.getClass(), component);
+        dispatcher.registerComponent(component);
     }
 
     @Override
     public void unregisterComponent(Component component) {
-        componentListeners.remove(component.getClass());
+        dispatcher.unregisterComponent(component);
     }
 
     @Override
     public void post(ComponentEvent event) {
         if (asyncProcessing) {
-            eventQueue.add(event);
+            postDeferred(event);
+            return;
+        }
+
+        Function<? super ComponentEvent, ?> keyFunction = coalescing.get(event.getEventType());
+        if (keyFunction != null) {
+            coalescer.offer(event.getEventType(), keyFunction, event);
         } else {
-            processEvent(event);
+            dispatcher.dispatch(event);
         }
     }
 
+    @Override
+    public void postDeferred(ComponentEvent event) {
+        eventQueue.offer(event, 0);
+    }
+
     @Override
     public void subscribe(String eventType, EventListener listener) {
-        listeners.computeIfAbsent(eventType, k -> new CopyOnWriteArrayList<>()).add(listener);
+        dispatcher.subscribe(eventType, listener);
     }
 
     @Override
     public void unsubscribe(String eventType, EventListener listener) {
-        List<EventListener> eventListeners = listeners.get(eventType);
-        if (eventListeners != null) {
-            eventListeners.remove(listener);
-        }
+        dispatcher.unsubscribe(eventType, listener);
+    }
+
+    @Override
+    public void subscribe(Class<? extends ComponentEvent> eventClass, EventListener listener) {
+        dispatcher.subscribe(eventClass, listener);
+    }
+
+    @Override
+    public void unsubscribe(Class<? extends ComponentEvent> eventClass, EventListener listener) {
+        dispatcher.unsubscribe(eventClass, listener);
     }
 
     @Override
     public int getListenerCount(String eventType) {
-        List<EventListener> eventListeners = listeners.get(eventType);
-        return eventListeners != null ? eventListeners.size() : 0;
+        return dispatcher.getListenerCount(eventType);
+    }
+
+    @Override
+    public int getListenerCount(Class<? extends ComponentEvent> eventClass) {
+        return dispatcher.getListenerCount(eventClass);
+    }
+
+    @Override
+    public boolean hasListeners(String eventType, Class<? extends ComponentEvent> eventClass) {
+        return dispatcher.hasListeners(eventType, eventClass);
+    }
+
+    @Override
+    public void setCoalescing(String eventType, Function<? super ComponentEvent, ?> keyFunction) {
+        coalescing.putIfAbsent(eventType, keyFunction);
+    }
+
+    @Override
+    public boolean isCoalescing(String eventType) {
+        return coalescing.containsKey(eventType);
+    }
+
+    @Override
+    public void flushCoalesced() {
+        coalescer.flush(dispatcher::dispatch);
     }
 
     /**
-     * 处理事件队列
+     * 立即处理所有排队事件（不受每刻预算限制），只允许在服务端线程调用
      */
     public void processEventQueue() {
-        for (ComponentEvent event : eventQueue) {
-            processEvent(event);
+        while (eventQueue.processNext()) {
+            // 处理期间新投递的事件同样会被处理
         }
-
-        eventQueue.clear();
     }
 
     /**
@@ -74,30 +136,55 @@ public class SimpleEventBus implements EventBus {
         this.asyncProcessing = async;
     }
 
-    private void processEvent(ComponentEvent event) {
-        String eventType = event.getEventType();
-        // 通知特定事件类型的监听器
-        List<EventListener> eventListeners = listeners.get(eventType);
-        if (eventListeners != null) {
-            for (EventListener listener : eventListeners) {
-                if (!event.isCancelled()) {
-                    listener.onEvent(event);
-                }
-            }
-        }
+    public boolean isAsyncProcessing() {
+        return asyncProcessing;
+    }
 
-        // 通知组件监听器
-        for (Component component : componentListeners.values()) {
-            if (!event.isCancelled() && component.isEnabled()) {
-                component.onEvent(event);
-            }
-        }
+    /**
+     * 当前排队等待处理的事件数
+     */
+    public int getQueuedEventCount() {
+        return eventQueue.size();
+    }
+
+    public int getQueueCapacity() {
+        return eventQueue.capacity();
+    }
+
+    /**
+     * 投递到可合并事件类型的事件数
+     */
+    public long getCoalescablePostCount() {
+        return coalescer.getCoalescablePostCount();
+    }
+
+    /**
+     * 合并后实际投递的事件数
+     */
+    public long getCoalescedDeliveryCount() {
+        return coalescer.getCoalescedDeliveryCount();
+    }
+
+    /**
+     * 合并比（投递数 / 实际分发数），没有可合并事件时为 1
+     */
+    public double getCoalescingRatio() {
+        long deliveries = coalescer.getCoalescedDeliveryCount();
+        return deliveries > 0 ? (double) coalescer.getCoalescablePostCount() / deliveries : 1.0;
+    }
+
+    /**
+     * 因队列已满被丢弃的事件数
+     */
+    public long getDroppedEventCount() {
+        return eventQueue.getDroppedCount();
     }
 
     public void clear() {
-        listeners.clear();
-        componentListeners.clear();
+        dispatcher.clear();
+        coalescer.clear();
+        coalescing.clear();
         eventQueue.clear();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package com.glyceryl6.kinematic.core.metrics;
+
+/**
+ * 延迟直方图的不可变快照
+ */
+public final class HistogramSnapshot {
+
+    private final long[] counts;
+    private final long totalCount;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long sum, long max) {
+        this.counts = counts;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.totalCount = total;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    /**
+     * 合并多个快照
+     */
+    public static HistogramSnapshot merge(Iterable<HistogramSnapshot> snapshots) {
+        long[] counts = new long[LatencyHistogram.BUCKET_COUNT];
+        long sum = 0;
+        long max = 0;
+        for (HistogramSnapshot snapshot : snapshots) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += snapshot.counts[i];
+            }
+            sum += snapshot.sum;
+            max = Math.max(max, snapshot.max);
+        }
+
+        return new HistogramSnapshot(counts, sum, max);
+    }
+
+    public long getTotalCount() {
+        return this.totalCount;
+    }
+
+    public double getMeanNanos() {
+        return this.totalCount == 0 ? 0 : (double) this.sum / this.totalCount;
+    }
+
+    public long getMaxNanos() {
+        return this.max;
+    }
+
+    /**
+     * 获取指定百分位（0-100）的耗时，取所在桶的中点
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (this.totalCount == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1L, (long) Math.ceil(this.totalCount * Math.min(100.0, percentile) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= target) {
+                long value = LatencyHistogram.bucketLowerBound(i) + LatencyHistogram.bucketWidth(i) / 2;
+                return Math.min(value, this.max);
+            }
+        }
+
+        return this.max;
+    }
+
+    public long getP50Nanos() {
+        return this.getValueAtPercentile(50.0);
+    }
+
+    public long getP99Nanos() {
+        return this.getValueAtPercentile(99.0);
+    }
+
+    public long getP999Nanos() {
+        return this.getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Histogram[count=%d, mean=%.1fns, p50=%dns, p99=%dns, p999=%dns, max=%dns]",
+                this.totalCount, this.getMeanNanos(), this.getP50Nanos(), this.getP99Nanos(), this.getP999Nanos(), this.max);
+    }
+
+}
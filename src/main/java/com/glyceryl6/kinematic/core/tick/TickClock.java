@@ -0,0 +1,36 @@
+package com.glyceryl6.kinematic.core.tick;
+
+/**
+ * 服务端刻时钟，为调度和过期判断提供与墙钟无关、在服务器卡顿时依然确定的时间
+ */
+public final class TickClock {
+
+    public static final long MILLIS_PER_TICK = 50L;
+
+    private static volatile long currentTick = 0L;
+
+    private TickClock() {}
+
+    /**
+     * 获取当前服务端刻
+     */
+    public static long currentTick() {
+        return currentTick;
+    }
+
+    /**
+     * 将毫秒时长换算为刻数（向上取整，至少为 1 刻）
+     */
+    public static long millisToTicks(long durationMs) {
+        return Math.max(1L, (durationMs + MILLIS_PER_TICK - 1) / MILLIS_PER_TICK);
+    }
+
+    static void advance() {
+        currentTick++;
+    }
+
+    static void reset() {
+        currentTick = 0L;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.glyceryl6.kinematic.core.tick;
+
+/**
+ * 全局刻调度器，由服务端刻事件驱动
+ */
+public final class TickScheduler {
+
+    private static final TimingWheel WHEEL = new TimingWheel(0L);
+
+    private TickScheduler() {}
+
+    /**
+     * 在指定服务端刻执行任务
+     */
+    public static TimingWheel.Timeout schedule(long deadlineTick, Runnable task) {
+        return WHEEL.schedule(deadlineTick, task);
+    }
+
+    /**
+     * 在若干刻之后执行任务
+     */
+    public static TimingWheel.Timeout scheduleAfter(long delayTicks, Runnable task) {
+        return WHEEL.schedule(TickClock.currentTick() + delayTicks, task);
+    }
+
+    public static int getPendingCount() {
+        return WHEEL.size();
+    }
+
+    /**
+     * 推进一刻并触发到期任务，每个服务端刻开始时调用一次
+     */
+    public static void tick() {
+        TickClock.advance();
+        WHEEL.advanceTo(TickClock.currentTick());
+    }
+
+    /**
+     * 服务器停止时重置时钟并丢弃所有挂起任务
+     */
+    public static void reset() {
+        TickClock.reset();
+        WHEEL.clear(0L);
+    }
+
+}
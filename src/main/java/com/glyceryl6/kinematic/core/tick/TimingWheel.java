@@ -0,0 +1,210 @@
+package com.glyceryl6.kinematic.core.tick;
+
+/**
+ * 分层时间轮，以服务端刻为单位调度定时任务
+ * <p>
+ * 共 4 层，每层 64 个槽位，覆盖约 2^24 刻（约 9.7 天）；更远的任务进入溢出链表，
+ * 在每个 2^24 刻边界重新分配。每刻的开销只与到期和降层的任务数量有关，
+ * 与挂起任务总数无关。非线程安全，只能在服务端线程使用。
+ */
+public final class TimingWheel {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final int OVERFLOW_LEVEL = LEVELS;
+    private static final int DETACHED = -1;
+
+    private final Timeout[][] slots = new Timeout[LEVELS][WHEEL_SIZE];
+    private Timeout overflow;
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long startTick) {
+        this.currentTick = startTick;
+    }
+
+    /**
+     * 在指定刻调度任务，已过去的刻视为下一刻
+     */
+    public Timeout schedule(long deadlineTick, Runnable task) {
+        Timeout timeout = new Timeout(this, Math.max(deadlineTick, this.currentTick + 1), task);
+        this.place(timeout);
+        this.size++;
+        return timeout;
+    }
+
+    /**
+     * 推进到指定刻，依次触发沿途到期的任务
+     */
+    public void advanceTo(long tick) {
+        while (this.currentTick < tick) {
+            long now = ++this.currentTick;
+            if ((now & WHEEL_MASK) == 0) {
+                this.cascade(now);
+            }
+
+            Timeout[] wheel = this.slots[0];
+            int slot = (int) (now & WHEEL_MASK);
+            Timeout timeout;
+            while ((timeout = wheel[slot]) != null) {
+                this.unlink(timeout);
+                this.size--;
+                timeout.task.run();
+            }
+        }
+    }
+
+    /**
+     * 清空所有挂起任务并重置当前刻
+     */
+    public void clear(long startTick) {
+        for (Timeout[] wheel : this.slots) {
+            for (int i = 0; i < WHEEL_SIZE; i++) {
+                while (wheel[i] != null) {
+                    this.unlink(wheel[i]);
+                }
+            }
+        }
+
+        while (this.overflow != null) {
+            this.unlink(this.overflow);
+        }
+
+        this.size = 0;
+        this.currentTick = startTick;
+    }
+
+    public long getCurrentTick() {
+        return this.currentTick;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private void cascade(long now) {
+        // 从高层到低层依次降层，保证同一刻到期的任务都落入第 0 层当前槽位
+        int level = 1;
+        while (level < LEVELS && ((now >>> (WHEEL_BITS * level)) << (WHEEL_BITS * level)) == now) {
+            level++;
+        }
+
+        if ((now & ((1L << (WHEEL_BITS * LEVELS)) - 1)) == 0) {
+            Timeout timeout = this.overflow;
+            this.overflow = null;
+            this.replaceAll(timeout);
+        }
+
+        for (int i = level - 1; i >= 1; i--) {
+            int slot = (int) ((now >>> (WHEEL_BITS * i)) & WHEEL_MASK);
+            Timeout timeout = this.slots[i][slot];
+            this.slots[i][slot] = null;
+            this.replaceAll(timeout);
+        }
+    }
+
+    private void replaceAll(Timeout timeout) {
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.level = DETACHED;
+            this.place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void place(Timeout timeout) {
+        long deadline = timeout.deadline;
+        for (int level = 0; level < LEVELS; level++) {
+            int shift = WHEEL_BITS * (level + 1);
+            if ((deadline >>> shift) == (this.currentTick >>> shift)) {
+                int slot = (int) ((deadline >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+                this.link(timeout, level, slot);
+                return;
+            }
+        }
+
+        this.link(timeout, OVERFLOW_LEVEL, 0);
+    }
+
+    private void link(Timeout timeout, int level, int slot) {
+        Timeout head = level == OVERFLOW_LEVEL ? this.overflow : this.slots[level][slot];
+        timeout.level = level;
+        timeout.slot = slot;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) {
+            head.prev = timeout;
+        }
+
+        if (level == OVERFLOW_LEVEL) {
+            this.overflow = timeout;
+        } else {
+            this.slots[level][slot] = timeout;
+        }
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else if (timeout.level == OVERFLOW_LEVEL) {
+            this.overflow = timeout.next;
+        } else {
+            this.slots[timeout.level][timeout.slot] = timeout.next;
+        }
+
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.level = DETACHED;
+    }
+
+    /**
+     * 挂起的定时任务句柄
+     */
+    public static final class Timeout {
+
+        private final TimingWheel wheel;
+        private final long deadline;
+        private final Runnable task;
+        private Timeout prev;
+        private Timeout next;
+        private int level = DETACHED;
+        private int slot;
+
+        private Timeout(TimingWheel wheel, long deadline, Runnable task) {
+            this.wheel = wheel;
+            this.deadline = deadline;
+            this.task = task;
+        }
+
+        public long getDeadline() {
+            return this.deadline;
+        }
+
+        public boolean isPending() {
+            return this.level != DETACHED;
+        }
+
+        /**
+         * 取消任务，O(1)
+         */
+        public boolean cancel() {
+            if (this.level == DETACHED) {
+                return false;
+            }
+
+            this.wheel.unlink(this);
+            this.wheel.size--;
+            return true;
+        }
+
+    }
+
+}
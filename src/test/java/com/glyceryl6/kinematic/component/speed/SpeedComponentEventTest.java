@@ -0,0 +1,107 @@
+package com.glyceryl6.kinematic.component.speed;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.core.architecture.AbstractComponent;
+import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.architecture.EventBus;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import com.glyceryl6.kinematic.core.event.ComponentEvent;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 速度组件订阅的变化事件不改变总线上其他监听器的投递方式
+ */
+class SpeedComponentEventTest {
+
+    private final List<MobComponentContainer> containers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        this.containers.forEach(MobComponentContainer::shutdown);
+        this.containers.clear();
+        TickScheduler.reset();
+    }
+
+    @Test
+    void otherListenersStillReceiveEveryEventImmediately() {
+        // 同一维度中先初始化一个速度组件
+        MobComponentContainer speedContainer = this.spawn(0);
+        speedContainer.addComponent(new SpeedComponent());
+        BusComponent sameEntity = new BusComponent();
+        speedContainer.addComponent(sameEntity);
+
+        MobComponentContainer otherContainer = this.spawn(16);
+        BusComponent otherEntity = new BusComponent();
+        otherContainer.addComponent(otherEntity);
+
+        for (BusComponent component : List.of(sameEntity, otherEntity)) {
+            EventBus bus = component.bus();
+            assertFalse(bus.isCoalescing("environment_changed"));
+            assertFalse(bus.isCoalescing("state_changed"));
+
+            List<ComponentEvent> received = new ArrayList<>();
+            bus.subscribe("environment_changed", event -> {
+                received.add(event);
+                event.setCancelled(true);
+            });
+            bus.subscribe("state_changed", received::add);
+
+            // 同一来源在同一刻内的多个事件，不经过 flushCoalesced 也全部立即送达
+            for (int i = 0; i < 3; i++) {
+                TestEvent environment = new TestEvent("environment_changed", component);
+                bus.post(environment);
+                assertTrue(environment.isCancelled(), "cancellation should be visible to the poster");
+                bus.post(new TestEvent("state_changed", component));
+            }
+            assertEquals(6, received.size());
+        }
+    }
+
+    private MobComponentContainer spawn(int x) {
+        MobComponentContainer container = new MobComponentContainer(TestMobs.createZombie(x, 64, 0));
+        this.containers.add(container);
+        return container;
+    }
+
+    /**
+     * 只用于取得实体总线的组件
+     */
+    private static final class BusComponent extends AbstractComponent {
+
+        @Override
+        public String getComponentId() {
+            return "bus";
+        }
+
+        @Override
+        public ComponentType getComponentType() {
+            return ComponentType.CUSTOM;
+        }
+
+        @Override
+        public void update(float deltaTime) {}
+
+        EventBus bus() {
+            return this.context.getEventBus();
+        }
+
+    }
+
+    private static final class TestEvent extends ComponentEvent {
+
+        TestEvent(String eventType, BusComponent source) {
+            super(eventType, source);
+        }
+
+    }
+
+}
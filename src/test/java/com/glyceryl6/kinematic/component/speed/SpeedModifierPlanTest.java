@@ -0,0 +1,153 @@
+package com.glyceryl6.kinematic.component.speed;
+
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.ConditionalSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.ModifierType;
+import com.glyceryl6.kinematic.component.speed.modifier.MultiplicativeSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SetSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifierTemplate;
+import net.minecraft.world.entity.Mob;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 编译后的执行计划与逐个调用修饰符的解释执行逐位一致
+ * <p>
+ * 按固定种子随机生成修饰符集合，覆盖所有 {@link ModifierType}、多个设置修饰符与优先级的混合、
+ * 未激活的修饰符，以及重写了 apply 的内置修饰符子类（必须按动态修饰符处理）。
+ */
+class SpeedModifierPlanTest {
+
+    private static final int SEEDS = 200;
+    private static final int SETS_PER_SEED = 50;
+
+    @Test
+    void compiledPlanMatchesInterpreter() {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            for (int set = 0; set < SETS_PER_SEED; set++) {
+                SpeedModifierStore store = new SpeedModifierStore();
+                int count = random.nextInt(24);
+                for (int i = 0; i < count; i++) {
+                    store.add(randomModifier(random, i));
+                }
+
+                SpeedModifierPlan plan = SpeedModifierPlan.compile(store.asList());
+                for (int sample = 0; sample < 8; sample++) {
+                    float baseSpeed = randomBaseSpeed(random);
+                    float expected = SpeedModifierPlan.interpret(store.asList(), baseSpeed, null);
+                    float actual = plan.evaluate(baseSpeed, null);
+                    long failingSeed = seed;
+                    int failingSet = set;
+                    assertEquals(Float.floatToRawIntBits(expected), Float.floatToRawIntBits(actual),
+                            () -> "seed " + failingSeed + ", set " + failingSet + ", base " + baseSpeed
+                                    + ": expected " + expected + " but plan returned " + actual);
+                }
+            }
+        }
+    }
+
+    @Test
+    void recompiledPlanFollowsActivationChanges() {
+        for (long seed = 0; seed < SEEDS; seed++) {
+            Random random = new Random(seed);
+            SpeedModifierStore store = new SpeedModifierStore();
+            for (int i = 0, count = 1 + random.nextInt(16); i < count; i++) {
+                store.add(randomModifier(random, i));
+            }
+
+            for (int round = 0; round < 10; round++) {
+                SpeedModifier toggled = store.get(random.nextInt(store.size()));
+                toggled.setActive(!toggled.isActive());
+                float baseSpeed = randomBaseSpeed(random);
+                float expected = SpeedModifierPlan.interpret(store.asList(), baseSpeed, null);
+                float actual = SpeedModifierPlan.compile(store.asList()).evaluate(baseSpeed, null);
+                long failingSeed = seed;
+                assertEquals(Float.floatToRawIntBits(expected), Float.floatToRawIntBits(actual),
+                        () -> "seed " + failingSeed + ": expected " + expected + " but plan returned " + actual);
+            }
+        }
+    }
+
+    private static SpeedModifier randomModifier(Random random, int index) {
+        String name = "modifier_" + index;
+        // 少量优先级取值，制造大量同优先级的混合
+        int priority = random.nextInt(4) - 1;
+        SpeedModifier modifier = switch (random.nextInt(9)) {
+            case 0, 1 -> new AdditiveSpeedModifier(name, randomOperand(random) - 1.0f, priority);
+            case 2, 3 -> new MultiplicativeSpeedModifier(name, randomOperand(random), priority);
+            case 4 -> new SetSpeedModifier(name, randomOperand(random), priority);
+            case 5 -> SpeedModifierTemplate.intern(ModifierType.values()[random.nextInt(3)], "interned_" + random.nextInt(4),
+                    randomOperand(random), priority).create();
+            case 6 -> new PercentageSpeedModifier(name, random.nextFloat() * 200.0f - 100.0f, priority);
+            case 7 -> {
+                boolean matches = random.nextBoolean();
+                yield new ConditionalSpeedModifier(name, randomBuiltIn(random, name, priority), mob -> matches);
+            }
+            default -> new HalfAdditiveSpeedModifier(name, randomOperand(random), priority);
+        };
+
+        if (random.nextInt(5) == 0) {
+            modifier.setActive(false);
+        }
+        return modifier;
+    }
+
+    private static SpeedModifier randomBuiltIn(Random random, String name, int priority) {
+        return switch (random.nextInt(3)) {
+            case 0 -> new AdditiveSpeedModifier(name, randomOperand(random) - 1.0f, priority);
+            case 1 -> new MultiplicativeSpeedModifier(name, randomOperand(random), priority);
+            default -> new SetSpeedModifier(name, randomOperand(random), priority);
+        };
+    }
+
+    private static float randomOperand(Random random) {
+        // 包含精确值和带舍入误差的值
+        return random.nextBoolean() ? random.nextInt(8) * 0.25f : random.nextFloat() * 2.0f;
+    }
+
+    private static float randomBaseSpeed(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> 0.0f;
+            case 1 -> 0.23f;
+            default -> random.nextFloat();
+        };
+    }
+
+    /**
+     * 自定义的百分比修饰符，只能动态求值
+     */
+    private static final class PercentageSpeedModifier extends SpeedModifier {
+
+        private PercentageSpeedModifier(String name, float value, int priority) {
+            super(name, ModifierType.PERCENTAGE, value, priority);
+        }
+
+        @Override
+        public float apply(float baseSpeed, float currentSpeed, Mob mob) {
+            return currentSpeed + baseSpeed * this.getValue() / 100.0f;
+        }
+
+    }
+
+    /**
+     * 重写了 apply 的加法修饰符子类，不能按加法指令展开
+     */
+    private static final class HalfAdditiveSpeedModifier extends AdditiveSpeedModifier {
+
+        private HalfAdditiveSpeedModifier(String name, float value, int priority) {
+            super(name, value, priority);
+        }
+
+        @Override
+        public float apply(float baseSpeed, float currentSpeed, Mob mob) {
+            return currentSpeed + this.getValue() * 0.5f;
+        }
+
+    }
+
+}
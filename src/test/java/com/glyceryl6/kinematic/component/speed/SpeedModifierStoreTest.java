@@ -0,0 +1,64 @@
+package com.glyceryl6.kinematic.component.speed;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import com.glyceryl6.kinematic.core.container.MobComponentContainer;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 重复添加同一修饰符实例
+ */
+class SpeedModifierStoreTest {
+
+    private MobComponentContainer container;
+
+    @AfterEach
+    void tearDown() {
+        if (this.container != null) {
+            this.container.shutdown();
+        }
+        TickScheduler.reset();
+    }
+
+    @Test
+    void addingSameInstanceTwiceIsNoOp() {
+        SpeedModifierStore store = new SpeedModifierStore();
+        SpeedModifier modifier = new AdditiveSpeedModifier("boost", 0.1f, 0);
+        assertTrue(store.add(modifier));
+        long version = store.getVersion();
+        assertFalse(store.add(modifier));
+        assertEquals(1, store.size());
+        assertEquals(version, store.getVersion());
+
+        store.remove(modifier.getId());
+        assertEquals(0, store.size());
+        assertEquals(0, store.asList().size());
+    }
+
+    @Test
+    void componentLeavesNoGhostEntryOrTimer() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        SpeedComponent speed = new SpeedComponent();
+        this.container.addComponent(speed);
+        float baseSpeed = speed.getBaseSpeed();
+
+        int pending = TickScheduler.getPendingCount();
+        SpeedModifier modifier = new AdditiveSpeedModifier("boost", 0.1f, 0);
+        speed.addTemporaryModifierTicks(modifier, 20);
+        speed.addTemporaryModifierTicks(modifier, 20);
+        assertEquals(pending + 1, TickScheduler.getPendingCount(), "only one expiry timer should be scheduled");
+
+        assertTrue(speed.removeModifier(modifier.getId()));
+        assertEquals(pending, TickScheduler.getPendingCount());
+        this.container.updateComponents(0.05f);
+        assertEquals(Float.floatToRawIntBits(baseSpeed), Float.floatToRawIntBits(speed.getCurrentSpeed()));
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.ModifierType;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
+import net.minecraft.world.entity.Mob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分批热替换保留无法持久化的修饰符
+ */
+class ComponentRolloutTest {
+
+    private static final float DELTA_TIME = 0.05f;
+
+    private MobComponentContainer container;
+
+    @AfterEach
+    void tearDown() {
+        ComponentRollout.clearAll();
+        if (this.container != null) {
+            this.container.shutdown();
+        }
+        TickScheduler.reset();
+    }
+
+    @Test
+    void swapKeepsConditionalAndCustomModifiers() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        SpeedComponent original = new SpeedComponent();
+        this.container.addComponent(original);
+        UUID conditionalId = original.addConditionalModifier("sprinting",
+                new AdditiveSpeedModifier("sprint", 0.1f, 0), mob -> true);
+        SpeedModifier custom = new CustomSpeedModifier();
+        UUID customId = original.addModifier(custom);
+        UUID staticId = original.addModifier(new AdditiveSpeedModifier("boost", 0.2f, 0));
+        this.container.updateComponents(DELTA_TIME);
+        float expected = original.getCurrentSpeed();
+
+        ComponentRollout rollout = ComponentRollout.builder(ComponentType.SPEED, SpeedComponent::new)
+                .canary(1, 0)
+                .start();
+        ComponentRollout.tickAll();
+        assertEquals(ComponentRollout.Stage.COMPLETED, rollout.getStage());
+        assertEquals(1, rollout.getMigrated());
+        assertEquals(0, rollout.getFailed());
+
+        SpeedComponent replacement = this.container.getComponent(SpeedComponent.class);
+        assertTrue(replacement != original, "speed component should have been replaced");
+        assertEquals(3, replacement.getActiveModifiers().size());
+        assertTrue(replacement.getActiveModifiers().contains(custom), "custom modifier instance should survive the swap");
+
+        this.container.updateComponents(DELTA_TIME);
+        assertEquals(expected, replacement.getCurrentSpeed(), 1.0e-6f);
+
+        // 替换前返回的 ID 仍然指向同一个修饰符
+        assertTrue(replacement.removeModifier(conditionalId));
+        assertTrue(replacement.removeModifier(customId));
+        assertTrue(replacement.removeModifier(staticId));
+    }
+
+    /**
+     * 不属于内置类型、无法按持久化模式重建的修饰符
+     */
+    private static final class CustomSpeedModifier extends SpeedModifier {
+
+        CustomSpeedModifier() {
+            super("custom", ModifierType.ADDITIVE, 0.05f, 0);
+        }
+
+        @Override
+        public float apply(float baseSpeed, float currentSpeed, Mob mob) {
+            return currentSpeed + this.getValue();
+        }
+
+    }
+
+}
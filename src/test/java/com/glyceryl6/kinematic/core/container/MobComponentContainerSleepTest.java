@@ -0,0 +1,218 @@
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.core.architecture.AbstractComponent;
+import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.architecture.EventBus;
+import com.glyceryl6.kinematic.core.event.ComponentEvent;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 组件休眠与唤醒
+ */
+class MobComponentContainerSleepTest {
+
+    private static final float DELTA_TIME = 0.05f;
+
+    private MobComponentContainer container;
+
+    @AfterEach
+    void tearDown() {
+        if (this.container != null) {
+            this.container.shutdown();
+        }
+        TickScheduler.reset();
+    }
+
+    /**
+     * 组件在同一轮更新中先报告空闲、之后又被更新顺序靠后的组件改脏时保持醒着，下一轮更新中重新计算
+     */
+    @Test
+    void componentDirtiedLaterInSamePassStaysAwake() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        SpeedComponent speed = new SpeedComponent();
+        ModifyingComponent modifying = new ModifyingComponent(speed);
+        this.container.addComponent(speed);
+        this.container.addComponent(modifying);
+
+        this.settle();
+        assertEquals(1, this.container.getAwakeCount(), "speed component should be asleep");
+
+        // 唤醒速度组件，在同一轮中它先更新并报告空闲，随后被添加修饰符
+        float baseSpeed = speed.getBaseSpeed() + 0.05f;
+        speed.setBaseSpeed(baseSpeed);
+        modifying.armed = true;
+        this.container.updateComponents(DELTA_TIME);
+        assertEquals(2, this.container.getAwakeCount(), "speed component woken during the pass should stay awake");
+
+        this.container.updateComponents(DELTA_TIME);
+        float expected = baseSpeed + 0.1f;
+        assertEquals(Float.floatToRawIntBits(expected), Float.floatToRawIntBits(speed.getCurrentSpeed()),
+                "expected " + expected + " but was " + speed.getCurrentSpeed());
+    }
+
+    /**
+     * 事件只唤醒监听它的组件，没有监听器的事件不唤醒任何组件
+     */
+    @Test
+    void eventWakesOnlySubscribedComponents() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        SpeedComponent speed = new SpeedComponent();
+        ModifyingComponent modifying = new ModifyingComponent(speed);
+        this.container.addComponent(speed);
+        this.container.addComponent(modifying);
+
+        this.settle();
+        assertEquals(1, this.container.getAwakeCount(), "speed component should be asleep");
+
+        modifying.bus().post(new TestEvent("unrelated_event", modifying));
+        assertEquals(1, this.container.getAwakeCount(), "event without listeners should not wake the speed component");
+
+        modifying.bus().post(new TestEvent("environment_changed", modifying));
+        assertEquals(2, this.container.getAwakeCount(), "speed component listens to environment_changed");
+    }
+
+    /**
+     * 判断是否空闲不产生副作用，定时唤醒只在进入休眠时安排一次
+     */
+    @Test
+    void idleCheckSchedulesNothing() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        SpeedComponent speed = new SpeedComponent();
+        this.container.addComponent(speed);
+        this.container.addComponent(new ModifyingComponent(speed));
+
+        this.settle();
+        int pending = TickScheduler.getPendingCount();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(speed.isIdle());
+        }
+        assertEquals(pending, TickScheduler.getPendingCount());
+    }
+
+    /**
+     * 容器休眠几分钟后被唤醒，第一次更新的 deltaTime 按一刻计算，不包含休眠的时长
+     */
+    @Test
+    void firstUpdateAfterWakeUsesSingleTick() {
+        this.container = new MobComponentContainer(TestMobs.createZombie());
+        RecordingComponent recording = new RecordingComponent();
+        this.container.addComponent(new SpeedComponent());
+        this.container.addComponent(recording);
+
+        ComponentTickManager manager = ComponentTickManager.getInstance();
+        long now = System.nanoTime();
+        for (int i = 0; i < 4 && !this.container.isAsleep(); i++) {
+            now += 50_000_000L;
+            TickScheduler.tick();
+            this.container.updateComponents(manager.consumeDeltaTime(this.container, now));
+        }
+        assertTrue(this.container.isAsleep(), "container should be asleep");
+
+        now += 5L * 60 * 1_000_000_000L;
+        this.container.wakeComponent(recording);
+        recording.deltaTimes.clear();
+        this.container.updateComponents(manager.consumeDeltaTime(this.container, now));
+        assertEquals(1, recording.deltaTimes.size());
+        assertEquals(DELTA_TIME, recording.deltaTimes.get(0), 1.0e-6f);
+    }
+
+    /**
+     * 更新直到速度组件进入休眠
+     */
+    private void settle() {
+        for (int i = 0; i < 4 && this.container.getAwakeCount() > 1; i++) {
+            TickScheduler.tick();
+            this.container.updateComponents(DELTA_TIME);
+        }
+    }
+
+    /**
+     * 更新顺序在速度组件之后、准备好时给速度组件添加修饰符的组件，自身从不休眠
+     */
+    private static final class ModifyingComponent extends AbstractComponent {
+
+        private final SpeedComponent speed;
+        boolean armed;
+
+        ModifyingComponent(SpeedComponent speed) {
+            this.speed = speed;
+        }
+
+        @Override
+        public String getComponentId() {
+            return "modifying";
+        }
+
+        @Override
+        public ComponentType getComponentType() {
+            return ComponentType.CUSTOM;
+        }
+
+        @Override
+        public int getPriority() {
+            return -1;
+        }
+
+        EventBus bus() {
+            return this.context.getEventBus();
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            if (this.armed) {
+                this.armed = false;
+                this.speed.addModifier(new AdditiveSpeedModifier("late_boost", 0.1f, 0));
+            }
+        }
+
+    }
+
+    /**
+     * 记录每次更新的 deltaTime，每次更新后立即休眠
+     */
+    private static final class RecordingComponent extends AbstractComponent {
+
+        final List<Float> deltaTimes = new ArrayList<>();
+
+        @Override
+        public String getComponentId() {
+            return "recording";
+        }
+
+        @Override
+        public ComponentType getComponentType() {
+            return ComponentType.CUSTOM;
+        }
+
+        @Override
+        public boolean isIdle() {
+            return true;
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            this.deltaTimes.add(deltaTime);
+        }
+
+    }
+
+    private static final class TestEvent extends ComponentEvent {
+
+        TestEvent(String eventType, ModifyingComponent source) {
+            super(eventType, source);
+        }
+
+    }
+
+}
@@ -0,0 +1,266 @@
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.MultiplicativeSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SetSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import com.glyceryl6.kinematic.core.architecture.AbstractComponent;
+import com.glyceryl6.kinematic.core.architecture.ComponentType;
+import com.glyceryl6.kinematic.core.architecture.ParallelUpdateComponent;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.attributes.Attributes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 两阶段并行更新与串行更新逐位一致
+ * <p>
+ * 按固定种子生成相同的两组生物和每刻相同的修改序列（基础速度、静态修饰符、临时修饰符、条件修饰符和移除），
+ * 一组串行更新，一组用不同线程数的 {@link ParallelContainerUpdater} 更新，每刻比较速度和原版属性值。
+ */
+class ParallelContainerUpdaterTest {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final int SEEDS = 6;
+    private static final int MOB_COUNT = 160;
+    private static final int TICKS = 40;
+    private static final float DELTA_TIME = 0.05f;
+
+    private final List<MobComponentContainer> containers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        this.containers.forEach(MobComponentContainer::shutdown);
+        this.containers.clear();
+        TickScheduler.reset();
+    }
+
+    @Test
+    void parallelUpdateMatchesSerialUpdate() {
+        for (int threads : THREAD_COUNTS) {
+            ParallelContainerUpdater updater = new ParallelContainerUpdater(threads);
+            try {
+                for (long seed = 0; seed < SEEDS; seed++) {
+                    this.simulate(updater, threads, seed);
+                    this.tearDown();
+                }
+            } finally {
+                updater.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void failedParallelPhaseFallsBackToSerialUpdate() {
+        ParallelContainerUpdater updater = new ParallelContainerUpdater(2);
+        try {
+            List<MobComponentContainer> batch = new ArrayList<>();
+            List<FailingComponent> failing = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                MobComponentContainer container = this.spawn(i * 40, i * 24);
+                SpeedComponent speed = new SpeedComponent();
+                container.addComponent(speed);
+                FailingComponent component = new FailingComponent();
+                container.addComponent(component);
+                failing.add(component);
+                speed.addModifier(new AdditiveSpeedModifier("boost", 0.1f, 0));
+                container.pendingDeltaTime = DELTA_TIME;
+                batch.add(container);
+            }
+
+            updater.update(batch);
+
+            for (int i = 0; i < batch.size(); i++) {
+                MobComponentContainer container = batch.get(i);
+                SpeedComponent speed = container.getComponent(SpeedComponent.class);
+                float expected = speed.getBaseSpeed() + 0.1f;
+                assertEquals(Float.floatToRawIntBits(expected), Float.floatToRawIntBits(speed.getCurrentSpeed()));
+                double vanillaSpeed = container.getMobEntity().getAttribute(Attributes.MOVEMENT_SPEED).getValue();
+                assertTrue(Math.abs(vanillaSpeed - expected) < 1.0e-6, "vanilla speed " + vanillaSpeed + " != " + expected);
+                // 计算阶段的结果被丢弃，组件改为串行更新一次
+                assertEquals(1, failing.get(i).updates);
+                assertEquals(0, failing.get(i).applies);
+            }
+        } finally {
+            updater.shutdown();
+        }
+    }
+
+    private void simulate(ParallelContainerUpdater updater, int threads, long seed) {
+        Random layout = new Random(seed);
+        List<MobComponentContainer> serial = new ArrayList<>(MOB_COUNT);
+        List<MobComponentContainer> parallel = new ArrayList<>(MOB_COUNT);
+        for (int i = 0; i < MOB_COUNT; i++) {
+            // 分散在多个区域，产生多个并行任务
+            int x = layout.nextInt(1024);
+            int z = layout.nextInt(1024);
+            serial.add(this.spawnWithSpeed(x, z));
+            parallel.add(this.spawnWithSpeed(x, z));
+        }
+
+        World serialWorld = new World(serial, seed);
+        World parallelWorld = new World(parallel, seed);
+        for (int tick = 0; tick < TICKS; tick++) {
+            TickScheduler.tick();
+            serialWorld.mutate();
+            parallelWorld.mutate();
+
+            for (MobComponentContainer container : serial) {
+                container.updateComponents(DELTA_TIME);
+            }
+            for (MobComponentContainer container : parallel) {
+                container.pendingDeltaTime = DELTA_TIME;
+            }
+            updater.update(parallel);
+
+            for (int i = 0; i < MOB_COUNT; i++) {
+                Mob serialMob = serial.get(i).getMobEntity();
+                Mob parallelMob = parallel.get(i).getMobEntity();
+                float serialSpeed = serial.get(i).getComponent(SpeedComponent.class).getCurrentSpeed();
+                float parallelSpeed = parallel.get(i).getComponent(SpeedComponent.class).getCurrentSpeed();
+                String where = "threads " + threads + ", seed " + seed + ", tick " + tick + ", mob " + i;
+                assertEquals(Float.floatToRawIntBits(serialSpeed), Float.floatToRawIntBits(parallelSpeed),
+                        where + ": " + serialSpeed + " != " + parallelSpeed);
+                assertEquals(Double.doubleToRawLongBits(serialMob.getAttribute(Attributes.MOVEMENT_SPEED).getValue()),
+                        Double.doubleToRawLongBits(parallelMob.getAttribute(Attributes.MOVEMENT_SPEED).getValue()), where);
+            }
+        }
+    }
+
+    private MobComponentContainer spawnWithSpeed(int x, int z) {
+        MobComponentContainer container = this.spawn(x, z);
+        container.addComponent(new SpeedComponent());
+        return container;
+    }
+
+    private MobComponentContainer spawn(int x, int z) {
+        MobComponentContainer container = new MobComponentContainer(TestMobs.createZombie(x, 64, z));
+        this.containers.add(container);
+        return container;
+    }
+
+    /**
+     * 一组生物及其修改序列，相同种子的两组按相同顺序得到相同的修改
+     */
+    private static final class World {
+
+        private final List<MobComponentContainer> containers;
+        private final List<List<SpeedModifier>> added = new ArrayList<>();
+        private final Random random;
+
+        World(List<MobComponentContainer> containers, long seed) {
+            this.containers = containers;
+            this.random = new Random(seed * 31 + 7);
+            for (int i = 0; i < containers.size(); i++) {
+                this.added.add(new ArrayList<>());
+            }
+        }
+
+        void mutate() {
+            for (int i = 0; i < this.containers.size(); i++) {
+                SpeedComponent speed = this.containers.get(i).getComponent(SpeedComponent.class);
+                List<SpeedModifier> added = this.added.get(i);
+                switch (this.random.nextInt(12)) {
+                    case 0 -> speed.setBaseSpeed(0.1f + this.random.nextInt(30) * 0.01f);
+                    case 1, 2 -> added.add(this.track(speed, this.modifier()));
+                    case 3 -> {
+                        SpeedModifier modifier = this.modifier();
+                        speed.addTemporaryModifierTicks(modifier, 1 + this.random.nextInt(20));
+                        added.add(modifier);
+                    }
+                    case 4 -> {
+                        // 条件修饰符不能并行计算，并行模式下该组件改为串行更新
+                        boolean matches = this.random.nextBoolean();
+                        speed.addConditionalModifier("conditional_" + this.random.nextInt(3), this.modifier(), mob -> matches);
+                    }
+                    case 5 -> {
+                        if (!added.isEmpty()) {
+                            speed.removeModifier(added.remove(this.random.nextInt(added.size())).getId());
+                        }
+                    }
+                    case 6 -> {
+                        if (!added.isEmpty()) {
+                            added.get(this.random.nextInt(added.size())).setDurationTicks(1 + this.random.nextInt(10));
+                        }
+                    }
+                    default -> {}
+                }
+            }
+        }
+
+        private SpeedModifier track(SpeedComponent speed, SpeedModifier modifier) {
+            speed.addModifier(modifier);
+            return modifier;
+        }
+
+        private SpeedModifier modifier() {
+            String name = "modifier_" + this.random.nextInt(6);
+            int priority = this.random.nextInt(3);
+            float value = this.random.nextFloat();
+            return switch (this.random.nextInt(3)) {
+                case 0 -> new AdditiveSpeedModifier(name, value * 0.2f - 0.1f, priority);
+                case 1 -> new MultiplicativeSpeedModifier(name, 0.5f + value, priority);
+                default -> new SetSpeedModifier(name, 0.1f + value * 0.3f, priority);
+            };
+        }
+
+    }
+
+    /**
+     * 在工作线程上计算时抛出错误的组件，模拟并行阶段的任务失败
+     */
+    private static final class FailingComponent extends AbstractComponent implements ParallelUpdateComponent {
+
+        int updates;
+        int applies;
+
+        @Override
+        public String getComponentId() {
+            return "failing";
+        }
+
+        @Override
+        public ComponentType getComponentType() {
+            return ComponentType.CUSTOM;
+        }
+
+        @Override
+        public int getPriority() {
+            return -1;
+        }
+
+        @Override
+        public boolean isParallelSafe() {
+            return true;
+        }
+
+        @Override
+        public void computeUpdate(float deltaTime) {
+            assertTrue(Thread.currentThread() instanceof ForkJoinWorkerThread);
+            throw new AssertionError("Simulated parallel failure");
+        }
+
+        @Override
+        public void applyUpdate(float deltaTime) {
+            this.applies++;
+        }
+
+        @Override
+        public void update(float deltaTime) {
+            this.updates++;
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.glyceryl6.kinematic.core.container;
+
+import com.glyceryl6.kinematic.TestMobs;
+import com.glyceryl6.kinematic.component.speed.SpeedComponent;
+import com.glyceryl6.kinematic.component.speed.modifier.AdditiveSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.ModifierType;
+import com.glyceryl6.kinematic.component.speed.modifier.MultiplicativeSpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifier;
+import com.glyceryl6.kinematic.component.speed.modifier.SpeedModifierTemplate;
+import com.glyceryl6.kinematic.core.tick.TickScheduler;
+import net.minecraft.nbt.ByteArrayTag;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 组件状态编码后恢复到新容器，未变化的容器复用上次的编码
+ */
+class PersistedComponentsTest {
+
+    private static final float DELTA_TIME = 0.05f;
+
+    private final List<MobComponentContainer> containers = new ArrayList<>();
+
+    @BeforeAll
+    static void registerSpeedComponent() {
+        try {
+            ComponentPersistence.register(SpeedComponent.COMPONENT_ID, SpeedComponent.class, SpeedComponent::new);
+        } catch (IllegalArgumentException e) {
+            // 已由其他测试注册
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.containers.forEach(MobComponentContainer::shutdown);
+        this.containers.clear();
+        TickScheduler.reset();
+    }
+
+    @Test
+    void speedComponentSurvivesRoundTrip() {
+        MobComponentContainer source = this.spawn();
+        SpeedComponent speed = new SpeedComponent();
+        source.addComponent(speed);
+        SpeedModifierTemplate shared = SpeedModifierTemplate.intern(ModifierType.ADDITIVE, "shared", 0.05f, 1);
+        speed.addModifier(new AdditiveSpeedModifier("boost", 0.1f, 0));
+        speed.addModifier(shared);
+        SpeedModifier slow = new MultiplicativeSpeedModifier("slow", 0.8f, 2);
+        speed.addTemporaryModifierTicks(slow, 100);
+        SpeedModifier disabled = new AdditiveSpeedModifier("disabled", 0.3f, 0);
+        speed.addModifier(disabled);
+        disabled.setActive(false);
+        source.updateComponents(DELTA_TIME);
+
+        PersistedComponents persisted = new PersistedComponents();
+        persisted.bind(source);
+        long encodedBefore = PersistedComponents.getEncodedCount();
+        byte[] encoded = persisted.save();
+        assertNotNull(encoded);
+        assertEquals(encodedBefore + 1, PersistedComponents.getEncodedCount());
+
+        // 未变化的容器直接复用上次的编码
+        long reusedBefore = PersistedComponents.getReusedCount();
+        assertSame(encoded, persisted.save());
+        assertEquals(reusedBefore + 1, PersistedComponents.getReusedCount());
+
+        PersistedComponents loaded = PersistedComponents.SERIALIZER.read(null, new ByteArrayTag(encoded), null);
+        assertTrue(loaded.isPendingRestore());
+        MobComponentContainer target = this.spawn();
+        loaded.bind(target);
+        assertFalse(loaded.isPendingRestore());
+
+        SpeedComponent restored = target.getComponent(SpeedComponent.class);
+        assertNotNull(restored, "speed component should be recreated from the encoding");
+        List<SpeedModifier> active = restored.getActiveModifiers();
+        assertEquals(3, active.size());
+        SpeedModifier restoredShared = find(active, "shared");
+        assertSame(shared, restoredShared.getTemplate(), "interned modifier should share the template");
+        assertEquals(slow.getExpirationTick(), find(active, "slow").getExpirationTick());
+        assertEquals(0.1f, find(active, "boost").getValue(), 0.0f);
+
+        // 停用的修饰符也被恢复：重新编码的结果与原编码逐字节相同
+        PersistedComponents resaved = new PersistedComponents();
+        resaved.bind(target);
+        assertTrue(Arrays.equals(encoded, resaved.save()), "re-encoded state differs from the original");
+
+        target.updateComponents(DELTA_TIME);
+        assertEquals(speed.getCurrentSpeed(), restored.getCurrentSpeed(), 1.0e-6f);
+    }
+
+    private static SpeedModifier find(List<SpeedModifier> modifiers, String name) {
+        for (SpeedModifier modifier : modifiers) {
+            if (modifier.getName().equals(name)) {
+                return modifier;
+            }
+        }
+
+        throw new AssertionError("Missing modifier " + name);
+    }
+
+    private MobComponentContainer spawn() {
+        MobComponentContainer container = new MobComponentContainer(TestMobs.createZombie());
+        this.containers.add(container);
+        return container;
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.glyceryl6.kinematic;
+
+import net.minecraft.SharedConstants;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.Bootstrap;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.ai.attributes.AttributeMap;
+import net.minecraft.world.entity.monster.Zombie;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.PrimaryLevelData;
+import net.minecraft.world.phys.Vec3;
+import sun.misc.Unsafe;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 单元测试和基准测试共用的最小生物实例
+ * <p>
+ * 不启动服务器和世界：跳过构造函数直接分配实体，只注入组件框架会访问的字段
+ * （实体 ID、实体类型、所在维度、维度数据、位置、属性表）。其余字段保持未初始化，不能用于游戏逻辑。
+ */
+public final class TestMobs {
+
+    private static final Unsafe UNSAFE;
+    private static final ServerLevel LEVEL;
+    private static final AtomicInteger NEXT_ENTITY_ID = new AtomicInteger(1);
+
+    static {
+        SharedConstants.tryDetectVersion();
+        Bootstrap.bootStrap();
+        try {
+            Field field = Unsafe.class.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            UNSAFE = (Unsafe) field.get(null);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+
+        LEVEL = allocate(ServerLevel.class);
+        setField(Level.class, "dimension", LEVEL, Level.OVERWORLD);
+        // 游戏时间恒为 0，供保存状态时换算过期时间
+        setField(Level.class, "levelData", LEVEL, allocate(PrimaryLevelData.class));
+    }
+
+    private TestMobs() {}
+
+    public static Mob createZombie() {
+        return createZombie(0, 0, 0);
+    }
+
+    /**
+     * 在指定方块坐标创建生物，每个生物的实体 ID 不同
+     */
+    public static Mob createZombie(int x, int y, int z) {
+        Zombie zombie = allocate(Zombie.class);
+        BlockPos blockPos = new BlockPos(x, y, z);
+        setField(Entity.class, "id", zombie, NEXT_ENTITY_ID.getAndIncrement());
+        setField(Entity.class, "position", zombie, new Vec3(x + 0.5, y, z + 0.5));
+        setField(Entity.class, "blockPosition", zombie, blockPos);
+        setField(Entity.class, "chunkPosition", zombie, new ChunkPos(blockPos));
+        setField(Entity.class, "type", zombie, EntityType.ZOMBIE);
+        setField(Entity.class, "level", zombie, LEVEL);
+        setField(LivingEntity.class, "attributes", zombie, new AttributeMap(Zombie.createAttributes().build()));
+        return zombie;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T allocate(Class<T> type) {
+        try {
+            return (T) UNSAFE.allocateInstance(type);
+        } catch (InstantiationException e) {
+            throw new IllegalStateException("Cannot allocate " + type.getName(), e);
+        }
+    }
+
+    private static void setField(Class<?> owner, String name, Object target, Object value) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + owner.getSimpleName() + "." + name, e);
+        }
+    }
+
+}